@@ -62,7 +62,7 @@ const Jobs = () => {
     try {
       setLoading(true);
       const response = await jobsApi.filter(filters);
-      setJobs(response.data);
+      setJobs(response.data.jobs);
     } catch (error) {
       console.error('Error filtering jobs:', error);
     } finally {
@@ -1,4 +1,5 @@
 import axios from 'axios';
+import type { ResumePage } from '../types';
 
 const api = axios.create({
   baseURL: 'http://localhost:5000/api',
@@ -73,12 +74,16 @@ export const resume = {
       keywords,
     }),
   delete: (id: string) => api.delete(`/resume/${id}`),
-  getAll: () => api.get('/resumes'),
+  // One page of the user's resumes; pass next_cursor back to get the next page
+  getAll: (cursor?: string, limit?: number) =>
+    api.get<ResumePage>('/resumes', { params: { cursor, limit } }),
 };
 
 // Jobs endpoints
 export const jobs = {
-  getAll: () => api.get('/jobs'),
+  getAll: () => api.get('/jobs', {
+    params: { fields: 'id,title,companyName,location,listedAt,skills,jobPostingUrl' },
+  }),
   getById: (id: string) => api.get(`/jobs/${id}`),
   refresh: () => api.post('/jobs/refresh'),
   search: (keyword: string) => api.get(`/jobs/search?keyword=${keyword}`),
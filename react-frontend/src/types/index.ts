@@ -16,6 +16,21 @@ export interface Resume {
   cachedAnalysis?: string;
 }
 
+// Resume list entry, without the extracted text
+export interface ResumeSummary {
+  id: string;
+  filename: string;
+  createdAt: string;
+  hasAnalysis: boolean;
+  textLength: number;
+}
+
+// One page of resumes, newest first; next_cursor is null on the last page
+export interface ResumePage {
+  resumes: ResumeSummary[];
+  next_cursor: string | null;
+}
+
 // Job types
 export interface Job {
   id: string;
@@ -0,0 +1,106 @@
+package com.linkedinjobassistant.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Content-addressed cache for AI results. Keys are a SHA-256 over the prompt
+ * version and the whitespace-normalized inputs, so the same resume and job
+ * description produce the same key no matter who submits them or how often.
+ * A bounded local LRU sits in front of a Redis tier with a TTL.
+ */
+@Component
+@Slf4j
+public class AIResultCache {
+
+    private static final String KEY_PREFIX = "ai:";
+
+    private final RedisTemplate<String, byte[]> redisBinaryTemplate;
+    private final RedisValueCodec redisValueCodec;
+    private final LocalLruCache<String, Object> localCache;
+    private final Duration ttl;
+
+    private final Counter localHits;
+    private final Counter redisHits;
+    private final Counter misses;
+
+    public AIResultCache(
+            @Qualifier("redisBinaryTemplate") RedisTemplate<String, byte[]> redisBinaryTemplate,
+            RedisValueCodec redisValueCodec,
+            MeterRegistry meterRegistry,
+            @Value("${app.ai.result-cache.local-size:1000}") int localSize,
+            @Value("${app.ai.result-cache.ttl:P7D}") Duration ttl) {
+        this.redisBinaryTemplate = redisBinaryTemplate;
+        this.redisValueCodec = redisValueCodec;
+        this.localCache = new LocalLruCache<>(localSize);
+        this.ttl = ttl;
+        this.localHits = meterRegistry.counter("ai.result.cache", "result", "local_hit");
+        this.redisHits = meterRegistry.counter("ai.result.cache", "result", "redis_hit");
+        this.misses = meterRegistry.counter("ai.result.cache", "result", "miss");
+    }
+
+    /**
+     * Build a cache key from a prompt version and the prompt inputs
+     */
+    public String key(String promptVersion, String... inputs) {
+        MessageDigest digest = ContentHash.sha256();
+        digest.update(promptVersion.getBytes(StandardCharsets.UTF_8));
+        for (String input : inputs) {
+            digest.update((byte) 0);
+            digest.update(normalize(input).getBytes(StandardCharsets.UTF_8));
+        }
+        return KEY_PREFIX + ContentHash.hex(digest);
+    }
+
+    /**
+     * Look up a cached result, local tier first
+     */
+    public <T> Optional<T> get(String key, Class<T> type) {
+        Object local = localCache.get(key);
+        if (type.isInstance(local)) {
+            localHits.increment();
+            return Optional.of(type.cast(local));
+        }
+
+        try {
+            byte[] cached = redisBinaryTemplate.opsForValue().get(key);
+            if (cached != null) {
+                T value = redisValueCodec.decode(cached, type);
+                localCache.put(key, value);
+                redisHits.increment();
+                return Optional.of(value);
+            }
+        } catch (Exception e) {
+            log.warn("Error reading AI result cache entry {}", key, e);
+        }
+
+        misses.increment();
+        return Optional.empty();
+    }
+
+    /**
+     * Store a result in both tiers
+     */
+    public void put(String key, Object value) {
+        localCache.put(key, value);
+        try {
+            redisBinaryTemplate.opsForValue().set(key, redisValueCodec.encode(value), ttl);
+        } catch (Exception e) {
+            log.error("Error writing AI result cache entry {}", key, e);
+        }
+    }
+
+    private static String normalize(String input) {
+        return input == null ? "" : input.strip().replaceAll("\\s+", " ");
+    }
+}
@@ -0,0 +1,43 @@
+package com.linkedinjobassistant.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * SHA-256 content hashes in lowercase hex, as used in cache keys and to
+ * recognise re-uploaded files and unchanged resume text.
+ */
+public final class ContentHash {
+
+    private ContentHash() {
+    }
+
+    /**
+     * A fresh SHA-256 digest, for hashing content fed in parts or streamed
+     */
+    public static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Finish a digest and format it as hex
+     */
+    public static String hex(MessageDigest digest) {
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * SHA-256 of a string's UTF-8 bytes as hex; null hashes like the empty string
+     */
+    public static String sha256Hex(String text) {
+        MessageDigest digest = sha256();
+        digest.update((text == null ? "" : text).getBytes(StandardCharsets.UTF_8));
+        return hex(digest);
+    }
+}
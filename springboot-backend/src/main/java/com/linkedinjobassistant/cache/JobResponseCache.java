@@ -0,0 +1,237 @@
+package com.linkedinjobassistant.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serialized job responses per job window, gzipped and, below a size limit,
+ * also kept as-is. A response body depends only on the window and the
+ * request, so it is serialized and compressed once per window and served as
+ * a byte copy afterwards. ETags are derived from the window key and the
+ * request alone, so a conditional request is answered without a body.
+ */
+@Component
+@Slf4j
+public class JobResponseCache {
+
+    private final ObjectMapper objectMapper;
+    // Unpaged listings get their own budget so pages, searches and filters cannot push them out
+    private final BodyLru listings;
+    private final BodyLru queries;
+    private final int maxIdentityBytes;
+    private final SingleFlight<String, CachedBody> builds;
+
+    private final Counter hits;
+    private final Counter misses;
+
+    /**
+     * A serialized body. etag is null when the window changed while the body
+     * was built; identity is null when only the gzip copy is kept.
+     */
+    public record CachedBody(String etag, byte[] identity, byte[] gzip) {
+
+        /**
+         * ETag of the gzip encoding, which is a different representation
+         */
+        public String gzipEtag() {
+            return etag == null ? null : JobResponseCache.gzipEtag(etag);
+        }
+
+        /**
+         * The uncompressed body, inflated from the gzip copy when that is all that is kept
+         */
+        public byte[] identityBytes() throws IOException {
+            if (identity != null) {
+                return identity;
+            }
+            try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip))) {
+                return in.readAllBytes();
+            }
+        }
+
+        long size() {
+            return (identity != null ? identity.length : 0) + (gzip != null ? gzip.length : 0);
+        }
+    }
+
+    public JobResponseCache(
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${app.job-response-cache.listing-max-bytes:67108864}") long listingMaxBytes,
+            @Value("${app.job-response-cache.query-max-bytes:33554432}") long queryMaxBytes,
+            @Value("${app.job-response-cache.max-identity-bytes:2097152}") int maxIdentityBytes) {
+        this.objectMapper = objectMapper;
+        this.listings = new BodyLru(listingMaxBytes);
+        this.queries = new BodyLru(queryMaxBytes);
+        this.maxIdentityBytes = maxIdentityBytes;
+        this.hits = meterRegistry.counter("job.response.cache", "result", "hit");
+        this.misses = meterRegistry.counter("job.response.cache", "result", "miss");
+        Counter coalesced = meterRegistry.counter("job.response.cache", "result", "coalesced");
+        this.builds = new SingleFlight<>(coalesced::increment);
+    }
+
+    /**
+     * Strong ETag of the identity body for a request in a window
+     */
+    public static String etag(String window, String requestKey) {
+        CRC32 crc = new CRC32();
+        crc.update(requestKey.getBytes(StandardCharsets.UTF_8));
+        return "\"jobs-" + window + "-" + Long.toHexString(crc.getValue()) + "\"";
+    }
+
+    /**
+     * Strong ETag of the gzip body with the given identity ETag
+     */
+    public static String gzipEtag(String etag) {
+        return etag.substring(0, etag.length() - 1) + "-gzip\"";
+    }
+
+    /**
+     * Check If-None-Match values against either encoding of a body
+     */
+    public static boolean matches(List<String> ifNoneMatch, String etag) {
+        String gzipEtag = gzipEtag(etag);
+        for (String value : ifNoneMatch) {
+            String candidate = value.startsWith("W/") ? value.substring(2) : value;
+            if (candidate.equals("*") || candidate.equals(etag) || candidate.equals(gzipEtag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Get the serialized body for a request in the given window, building it
+     * on a miss. Concurrent misses for the same body share one build. The
+     * window is checked again once the body is built; a body that straddles
+     * a window change is returned without an ETag and not kept, so an ETag
+     * always names exactly one set of bytes.
+     */
+    public CachedBody get(String window, String requestKey, boolean listing,
+                          Supplier<String> currentWindow, Supplier<?> body) throws IOException {
+        String key = window + " " + requestKey;
+        BodyLru tier = listing ? listings : queries;
+        CachedBody cached = tier.get(key);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+
+        try {
+            return builds.execute(key, () -> CompletableFuture.completedFuture(
+                    build(tier, key, window, requestKey, currentWindow, body))).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof UncheckedIOException cause) {
+                throw cause.getCause();
+            }
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private CachedBody build(BodyLru tier, String key, String window, String requestKey,
+                             Supplier<String> currentWindow, Supplier<?> body) {
+        // A build for this key may have finished between the lookup and joining the flight
+        CachedBody cached = tier.get(key);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+
+        misses.increment();
+        try {
+            byte[] identity = objectMapper.writeValueAsBytes(body.get());
+            if (!window.equals(currentWindow.get())) {
+                return new CachedBody(null, identity, null);
+            }
+
+            String etag = etag(window, requestKey);
+            byte[] gzip = gzip(identity);
+            if (identity.length > maxIdentityBytes) {
+                log.debug("Response for {} is {} bytes, keeping only the {} byte gzip copy",
+                        requestKey, identity.length, gzip.length);
+            }
+            tier.put(window, key, new CachedBody(etag, identity.length > maxIdentityBytes ? null : identity, gzip));
+            return new CachedBody(etag, identity, gzip);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Compress at the highest level; the cost is paid once per window
+     */
+    private static byte[] gzip(byte[] payload) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(payload.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            gzip.write(payload);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Access-ordered bodies bounded by the bytes they hold. Bodies of older
+     * windows can never be served again, so they are dropped as soon as a
+     * body for a newer window is stored.
+     */
+    private static final class BodyLru {
+
+        private final long maxBytes;
+        private final LinkedHashMap<String, CachedBody> entries = new LinkedHashMap<>(16, 0.75f, true);
+        private String window;
+        private long bytes;
+
+        BodyLru(long maxBytes) {
+            this.maxBytes = maxBytes;
+        }
+
+        synchronized CachedBody get(String key) {
+            return entries.get(key);
+        }
+
+        synchronized void put(String window, String key, CachedBody body) {
+            if (!window.equals(this.window)) {
+                this.window = window;
+                entries.clear();
+                bytes = 0;
+            }
+            if (body.size() > maxBytes) {
+                return;
+            }
+
+            CachedBody previous = entries.put(key, body);
+            bytes += body.size() - (previous != null ? previous.size() : 0);
+            Iterator<CachedBody> eldest = entries.values().iterator();
+            while (bytes > maxBytes && eldest.hasNext()) {
+                bytes -= eldest.next().size();
+                eldest.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.linkedinjobassistant.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import lombok.extern.slf4j.Slf4j;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Exception;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4SafeDecompressor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Encodes cached values for Redis in a compact binary format.
+ *
+ * Encoded values start with a zero marker byte, a flags byte naming the data
+ * format and compression, and (when compressed) the uncompressed length.
+ * Values without the marker were written before the codec existed and are
+ * read back as plain JSON, or as raw UTF-8 text when a String is requested.
+ */
+@Component
+@Slf4j
+public class RedisValueCodec {
+
+    public enum Format { JSON, SMILE, CBOR }
+
+    public enum Compression { NONE, LZ4, DEFLATE }
+
+    private static final byte MARKER = 0;
+    private static final int HEADER_LENGTH = 2;
+    private static final int LENGTH_PREFIX = 4;
+    // Upper bound on a declared uncompressed length, so a corrupt prefix cannot force a huge allocation
+    private static final int MAX_DECODED_BYTES = 64 * 1024 * 1024;
+
+    private final ObjectMapper[] mappers = new ObjectMapper[Format.values().length];
+    private final Format format;
+    private final Compression compression;
+    private final int minCompressBytes;
+
+    private final LZ4Compressor lz4Compressor = LZ4Factory.fastestInstance().fastCompressor();
+    private final LZ4SafeDecompressor lz4Decompressor = LZ4Factory.fastestInstance().safeDecompressor();
+
+    public RedisValueCodec(
+            ObjectMapper objectMapper,
+            @Value("${app.redis.codec.format:SMILE}") Format format,
+            @Value("${app.redis.codec.compression:LZ4}") Compression compression,
+            @Value("${app.redis.codec.min-compress-bytes:512}") int minCompressBytes) {
+        this.mappers[Format.JSON.ordinal()] = objectMapper;
+        this.mappers[Format.SMILE.ordinal()] = objectMapper.copyWith(new SmileFactory());
+        this.mappers[Format.CBOR.ordinal()] = objectMapper.copyWith(new CBORFactory());
+        this.format = format;
+        this.compression = compression;
+        this.minCompressBytes = minCompressBytes;
+        log.info("Redis values encoded as {} with {} compression", format, compression);
+    }
+
+    /**
+     * Encode a value with the configured format and compression
+     */
+    public byte[] encode(Object value) throws IOException {
+        byte[] payload = mappers[format.ordinal()].writeValueAsBytes(value);
+        Compression applied = payload.length >= minCompressBytes ? compression : Compression.NONE;
+
+        byte[] body = switch (applied) {
+            case NONE -> payload;
+            case LZ4 -> lz4Compressor.compress(payload);
+            case DEFLATE -> deflate(payload);
+        };
+
+        int prefix = applied == Compression.NONE ? 0 : LENGTH_PREFIX;
+        ByteBuffer encoded = ByteBuffer.allocate(HEADER_LENGTH + prefix + body.length);
+        encoded.put(MARKER);
+        encoded.put((byte) (applied.ordinal() << 4 | format.ordinal()));
+        if (prefix > 0) {
+            encoded.putInt(payload.length);
+        }
+        encoded.put(body);
+        return encoded.array();
+    }
+
+    /**
+     * Decode a value written by {@link #encode} or by the plain string serializer
+     * before it. Corrupt or unknown values fail with an IOException only.
+     */
+    public <T> T decode(byte[] bytes, Class<T> type) throws IOException {
+        if (bytes.length < HEADER_LENGTH || bytes[0] != MARKER) {
+            return decodeLegacy(bytes, type);
+        }
+
+        int flags = bytes[1] & 0xff;
+        int compressionIndex = flags >>> 4;
+        int formatIndex = flags & 0x0f;
+        if (compressionIndex >= Compression.values().length || formatIndex >= Format.values().length) {
+            throw new IOException(String.format("Unknown cache value flags 0x%02x", flags));
+        }
+        Compression applied = Compression.values()[compressionIndex];
+        ObjectMapper mapper = mappers[formatIndex];
+        if (applied == Compression.NONE) {
+            return mapper.readValue(bytes, HEADER_LENGTH, bytes.length - HEADER_LENGTH, type);
+        }
+
+        int offset = HEADER_LENGTH + LENGTH_PREFIX;
+        if (bytes.length < offset) {
+            throw new IOException("Truncated compressed cache value");
+        }
+        int length = ByteBuffer.wrap(bytes, HEADER_LENGTH, LENGTH_PREFIX).getInt();
+        if (length < 0 || length > MAX_DECODED_BYTES) {
+            throw new IOException("Invalid uncompressed length " + length);
+        }
+        byte[] payload = switch (applied) {
+            case LZ4 -> lz4Decompress(bytes, offset, length);
+            case DEFLATE -> inflate(bytes, offset, length);
+            case NONE -> throw new IllegalStateException();
+        };
+        return mapper.readValue(payload, type);
+    }
+
+    private byte[] lz4Decompress(byte[] bytes, int offset, int length) throws IOException {
+        // The safe decompressor bounds its reads by the input, so the declared length is checked too
+        byte[] payload = new byte[length];
+        int decompressed;
+        try {
+            decompressed = lz4Decompressor.decompress(bytes, offset, bytes.length - offset, payload, 0, length);
+        } catch (LZ4Exception e) {
+            throw new IOException("Corrupt LZ4 cache value", e);
+        }
+        if (decompressed != length) {
+            throw new IOException("LZ4 cache value decompressed to " + decompressed + " bytes, expected " + length);
+        }
+        return payload;
+    }
+
+    private <T> T decodeLegacy(byte[] bytes, Class<T> type) throws IOException {
+        if (type == String.class) {
+            return type.cast(new String(bytes, StandardCharsets.UTF_8));
+        }
+        return mappers[Format.JSON.ordinal()].readValue(bytes, type);
+    }
+
+    private byte[] deflate(byte[] payload) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(payload);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(payload.length / 2);
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private byte[] inflate(byte[] bytes, int offset, int length) throws IOException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(bytes, offset, bytes.length - offset);
+            byte[] payload = new byte[length];
+            int read = 0;
+            while (read < length && !inflater.finished()) {
+                int inflated = inflater.inflate(payload, read, length - read);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IOException("Truncated deflated cache value");
+                }
+                read += inflated;
+            }
+            // With the output full the end of the stream may not have been read yet; more output means a bad length
+            if (read == length && !inflater.finished() && inflater.inflate(new byte[1]) > 0) {
+                throw new IOException("Deflated cache value is longer than its length " + length);
+            }
+            if (read != length || !inflater.finished()) {
+                throw new IOException("Deflated cache value does not match its length " + length);
+            }
+            return payload;
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt deflated cache value", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package com.linkedinjobassistant.cache;
+
+import com.linkedinjobassistant.model.Resume;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Read-through cache of full resume records, including the owner id so
+ * callers can authorize a hit without touching Mongo. A short-lived local
+ * LRU sits in front of Redis; updates and evictions are broadcast so other
+ * nodes drop their local copy as well. Every hit is one Mongo read saved.
+ *
+ * Each resume has a generation counter that every update and eviction bumps.
+ * A read-through fill takes the generation before reading Mongo and is only
+ * stored if it is unchanged, so a fill racing an update or delete cannot put
+ * the old record back for the rest of the TTL.
+ */
+@Component
+@Slf4j
+public class ResumeCache {
+
+    private static final String KEY_PREFIX = "resume:";
+    private static final String GENERATION_PREFIX = "resume:generation:";
+    private static final String EVICTED_CHANNEL = "resume:evicted";
+
+    // Store a fill only if no update or eviction happened since its generation was read
+    private static final RedisScript<Long> FILL = new DefaultRedisScript<>(
+            "if (redis.call('GET', KEYS[2]) or '0') ~= ARGV[1] then return 0 end "
+                    + "redis.call('SET', KEYS[1], ARGV[2], 'PX', ARGV[3]) return 1",
+            Long.class);
+
+    // Bump the generation, then store or (without a value) delete the record
+    private static final RedisScript<Long> WRITE = new DefaultRedisScript<>(
+            "redis.call('INCR', KEYS[2]) redis.call('PEXPIRE', KEYS[2], ARGV[1]) "
+                    + "if ARGV[2] then redis.call('SET', KEYS[1], ARGV[2], 'PX', ARGV[1]) "
+                    + "else redis.call('DEL', KEYS[1]) end return 1",
+            Long.class);
+
+    private final RedisTemplate<String, byte[]> redisBinaryTemplate;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final RedisMessageListenerContainer redisListenerContainer;
+    private final RedisValueCodec redisValueCodec;
+    private final LocalLruCache<String, Resume> localCache;
+    private final Duration ttl;
+    // Tags this node's broadcasts so it does not drop the copy it just stored
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final Counter localHits;
+    private final Counter redisHits;
+    private final Counter misses;
+
+    public ResumeCache(
+            @Qualifier("redisBinaryTemplate") RedisTemplate<String, byte[]> redisBinaryTemplate,
+            @Qualifier("redisTemplate") RedisTemplate<String, String> redisTemplate,
+            @Qualifier("redisListenerContainer") RedisMessageListenerContainer redisListenerContainer,
+            RedisValueCodec redisValueCodec,
+            MeterRegistry meterRegistry,
+            @Value("${app.resume-cache.local-size:500}") int localSize,
+            @Value("${app.resume-cache.local-ttl:PT1M}") Duration localTtl,
+            @Value("${app.resume-cache.ttl:PT24H}") Duration ttl) {
+        this.redisBinaryTemplate = redisBinaryTemplate;
+        this.redisTemplate = redisTemplate;
+        this.redisListenerContainer = redisListenerContainer;
+        this.redisValueCodec = redisValueCodec;
+        this.localCache = new LocalLruCache<>(localSize, localTtl);
+        this.ttl = ttl;
+        this.localHits = meterRegistry.counter("resume.cache", "result", "local_hit");
+        this.redisHits = meterRegistry.counter("resume.cache", "result", "redis_hit");
+        this.misses = meterRegistry.counter("resume.cache", "result", "miss");
+    }
+
+    @PostConstruct
+    void subscribeToEvictions() {
+        redisListenerContainer.addMessageListener((message, pattern) -> {
+            // Messages are "<node id> <resume id>"
+            String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split(" ", 2);
+            if (parts.length == 2 && !parts[0].equals(nodeId)) {
+                localCache.invalidate(parts[1]);
+            }
+        }, new ChannelTopic(EVICTED_CHANNEL));
+    }
+
+    /**
+     * Look up a resume by id, local tier first
+     */
+    public Optional<Resume> get(String id) {
+        Resume local = localCache.get(id);
+        if (local != null) {
+            localHits.increment();
+            return Optional.of(local);
+        }
+
+        try {
+            byte[] cached = redisBinaryTemplate.opsForValue().get(key(id));
+            if (cached != null) {
+                Resume resume = redisValueCodec.decode(cached, Resume.class);
+                localCache.put(id, resume);
+                redisHits.increment();
+                return Optional.of(resume);
+            }
+        } catch (Exception e) {
+            // Also covers entries written in the older text-only format
+            log.warn("Error reading cached resume {}", id, e);
+        }
+
+        misses.increment();
+        return Optional.empty();
+    }
+
+    /**
+     * Generation to pass to {@link #fill} for a record about to be read from Mongo
+     */
+    public String fillToken(String id) {
+        try {
+            String generation = redisTemplate.opsForValue().get(generationKey(id));
+            return generation != null ? generation : "0";
+        } catch (Exception e) {
+            log.warn("Error reading cache generation of resume {}", id, e);
+            return null;
+        }
+    }
+
+    /**
+     * Cache a resume read from Mongo, unless it was updated or evicted since
+     * the token was taken. Nothing is broadcast: other nodes cannot hold a
+     * newer copy than the database.
+     */
+    public void fill(Resume resume, String token) {
+        if (token == null) {
+            return;
+        }
+        try {
+            Long stored = redisBinaryTemplate.execute(FILL, List.of(key(resume.getId()), generationKey(resume.getId())),
+                    bytes(token), redisValueCodec.encode(resume), bytes(String.valueOf(ttl.toMillis())));
+            if (stored != null && stored == 1) {
+                localCache.put(resume.getId(), resume);
+            }
+        } catch (Exception e) {
+            log.error("Error writing cached resume {}", resume.getId(), e);
+        }
+    }
+
+    /**
+     * Store a resume that was just written to Mongo in both tiers and have
+     * other nodes drop their local copy, which may be an older version of it
+     */
+    public void put(Resume resume) {
+        localCache.put(resume.getId(), resume);
+        try {
+            redisBinaryTemplate.execute(WRITE, List.of(key(resume.getId()), generationKey(resume.getId())),
+                    bytes(String.valueOf(ttl.toMillis())), redisValueCodec.encode(resume));
+        } catch (Exception e) {
+            log.error("Error writing cached resume {}", resume.getId(), e);
+        }
+        redisTemplate.convertAndSend(EVICTED_CHANNEL, evictionMessage(resume.getId()));
+    }
+
+    /**
+     * Drop a resume from Redis and from every node's local tier
+     */
+    public void evict(String id) {
+        localCache.invalidate(id);
+        redisBinaryTemplate.execute(WRITE, List.of(key(id), generationKey(id)), bytes(String.valueOf(ttl.toMillis())));
+        redisTemplate.convertAndSend(EVICTED_CHANNEL, evictionMessage(id));
+    }
+
+    /**
+     * Drop many resumes in one pipelined round trip, for bulk deletes
+     */
+    public void evictAll(Collection<String> ids) {
+        ids.forEach(localCache::invalidate);
+        byte[] channel = EVICTED_CHANNEL.getBytes(StandardCharsets.UTF_8);
+        redisBinaryTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (String id : ids) {
+                byte[] generation = bytes(generationKey(id));
+                connection.stringCommands().incr(generation);
+                connection.keyCommands().pExpire(generation, ttl.toMillis());
+                connection.keyCommands().del(bytes(key(id)));
+                connection.publish(channel, evictionMessage(id).getBytes(StandardCharsets.UTF_8));
+            }
+            return null;
+        });
+    }
+
+    private String evictionMessage(String id) {
+        return nodeId + " " + id;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String generationKey(String id) {
+        return GENERATION_PREFIX + id;
+    }
+
+    /**
+     * Redis key for a resume
+     */
+    public static String key(String id) {
+        return KEY_PREFIX + id;
+    }
+}
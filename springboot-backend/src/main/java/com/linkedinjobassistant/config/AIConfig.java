@@ -1,10 +1,23 @@
 package com.linkedinjobassistant.config;
 
+import com.theokanning.openai.client.OpenAiApi;
 import com.theokanning.openai.service.OpenAiService;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.net.http.HttpClient;
 import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 @Configuration
 public class AIConfig {
@@ -15,9 +28,78 @@ public class AIConfig {
     @Value("${app.ai.google-api-key}")
     private String googleApiKey;
 
+    @Value("${app.ai.request-timeout:PT60S}")
+    private Duration requestTimeout;
+
+    /**
+     * OpenAI client whose OkHttp dispatcher admits as many concurrent calls to
+     * the API host as app.ai.max-concurrent-streams allows. Streams are async
+     * OkHttp calls, and the default dispatcher runs only five per host, so any
+     * further streams would wait in its queue while holding a permit.
+     */
     @Bean
-    public OpenAiService openAiService() {
-        return new OpenAiService(openAiApiKey, Duration.ofSeconds(60));
+    public OpenAiService openAiService(@Value("${app.ai.max-concurrent-streams:32}") int maxConcurrentStreams) {
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequestsPerHost(maxConcurrentStreams);
+        dispatcher.setMaxRequests(Math.max(dispatcher.getMaxRequests(), maxConcurrentStreams));
+        OkHttpClient client = OpenAiService.defaultClient(openAiApiKey, requestTimeout).newBuilder()
+                .dispatcher(dispatcher)
+                .build();
+        OpenAiApi api = OpenAiService.defaultRetrofit(client, OpenAiService.defaultObjectMapper())
+                .create(OpenAiApi.class);
+        return new OpenAiService(api, client.dispatcher().executorService());
+    }
+
+    /**
+     * Non-blocking HTTP client for the Gemini REST API. Requests are sent with
+     * sendAsync, so no servlet thread waits on the network.
+     */
+    @Bean
+    public HttpClient geminiHttpClient() {
+        return HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    /**
+     * Bounded pool for the blocking OpenAI client. When it is full, new calls are
+     * rejected instead of piling up, and controllers answer 503.
+     */
+    @Bean
+    public ExecutorService aiExecutor(
+            @Value("${app.ai.executor.threads:16}") int threads,
+            @Value("${app.ai.executor.queue-capacity:100}") int queueCapacity) {
+        return new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("ai-"),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Workers for submitted analysis tasks. The bounded queue is the backpressure
+     * point: once it is full, submissions are refused with 429.
+     */
+    @Bean
+    public ThreadPoolExecutor analysisTaskExecutor(
+            @Value("${app.tasks.executor.threads:8}") int threads,
+            @Value("${app.tasks.executor.queue-capacity:50}") int queueCapacity) {
+        return new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("analysis-task-"),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Pool for MVC async requests and streamed responses such as the job export.
+     * Boot only creates it when there is no other Executor bean, and the pools
+     * above are Executors; without it async requests would run on an unbounded
+     * SimpleAsyncTaskExecutor. MVC picks it up by name, and it is sized by the
+     * spring.task.execution settings.
+     */
+    @Bean(name = TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    public ThreadPoolTaskExecutor applicationTaskExecutor(ThreadPoolTaskExecutorBuilder builder) {
+        return builder.build();
     }
 
     // Method to get Google API key for Gemini AI
@@ -3,11 +3,15 @@ package com.linkedinjobassistant.config;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.cognitoidentityprovider.CognitoIdentityProviderClient;
 import software.amazon.awssdk.services.sqs.SqsClient;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 @Configuration
 public class AWSConfig {
 
@@ -22,6 +26,15 @@ public class AWSConfig {
                 .build();
     }
 
+    /**
+     * Receiver threads for draining the job queue, kept for the life of the
+     * application instead of being created on every scheduled drain
+     */
+    @Bean
+    public ExecutorService sqsDrainExecutor(@Value("${app.jobs.drain.receivers:4}") int receivers) {
+        return Executors.newFixedThreadPool(Math.max(receivers, 1), new CustomizableThreadFactory("sqs-drain-"));
+    }
+
     @Bean
     public CognitoIdentityProviderClient cognitoClient() {
         return CognitoIdentityProviderClient.builder()
@@ -1,5 +1,6 @@
 package com.linkedinjobassistant.config;
 
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -8,6 +9,8 @@ import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 @Configuration
@@ -69,7 +72,8 @@ public class RedisConfig {
     }
 
     @Bean
-    public RedisTemplate<String, String> jobsRedisTemplate(RedisConnectionFactory jobsRedisConnectionFactory) {
+    public RedisTemplate<String, String> jobsRedisTemplate(
+            @Qualifier("jobsRedisConnectionFactory") RedisConnectionFactory jobsRedisConnectionFactory) {
         RedisTemplate<String, String> template = new RedisTemplate<>();
         template.setConnectionFactory(jobsRedisConnectionFactory);
         template.setKeySerializer(new StringRedisSerializer());
@@ -80,4 +84,43 @@ public class RedisConfig {
         template.afterPropertiesSet();
         return template;
     }
+
+    // Binary templates for payloads encoded by RedisValueCodec; the string
+    // templates above stay in use for counters, keys and pub/sub
+    @Bean
+    public RedisTemplate<String, byte[]> redisBinaryTemplate(RedisConnectionFactory redisConnectionFactory) {
+        return binaryTemplate(redisConnectionFactory);
+    }
+
+    @Bean
+    public RedisTemplate<String, byte[]> jobsRedisBinaryTemplate(
+            @Qualifier("jobsRedisConnectionFactory") RedisConnectionFactory jobsRedisConnectionFactory) {
+        return binaryTemplate(jobsRedisConnectionFactory);
+    }
+
+    @Bean
+    public RedisMessageListenerContainer redisListenerContainer(RedisConnectionFactory redisConnectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redisConnectionFactory);
+        return container;
+    }
+
+    @Bean
+    public RedisMessageListenerContainer jobsRedisListenerContainer(
+            @Qualifier("jobsRedisConnectionFactory") RedisConnectionFactory jobsRedisConnectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(jobsRedisConnectionFactory);
+        return container;
+    }
+
+    private RedisTemplate<String, byte[]> binaryTemplate(RedisConnectionFactory connectionFactory) {
+        RedisTemplate<String, byte[]> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        template.setKeySerializer(new StringRedisSerializer());
+        template.setValueSerializer(RedisSerializer.byteArray());
+        template.setHashKeySerializer(new StringRedisSerializer());
+        template.setHashValueSerializer(RedisSerializer.byteArray());
+        template.afterPropertiesSet();
+        return template;
+    }
 }
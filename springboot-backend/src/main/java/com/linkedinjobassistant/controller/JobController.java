@@ -1,16 +1,44 @@
 package com.linkedinjobassistant.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.linkedinjobassistant.cache.JobResponseCache;
 import com.linkedinjobassistant.model.Job;
+import com.linkedinjobassistant.model.JobFilter;
+import com.linkedinjobassistant.model.Resume;
+import com.linkedinjobassistant.service.JobFacetIndex;
 import com.linkedinjobassistant.service.JobService;
+import com.linkedinjobassistant.service.JobTextTokenizer;
+import com.linkedinjobassistant.service.ResumeService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.core.oidc.user.OidcUser;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 @RestController
 @RequestMapping("/api/jobs")
@@ -19,15 +47,56 @@ import java.util.Map;
 public class JobController {
 
     private final JobService jobService;
+    private final ResumeService resumeService;
+    private final ObjectMapper objectMapper;
+    private final JobResponseCache jobResponseCache;
+
+    // Newline-delimited JSON, one job per line
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    // Bounds for the recommended feed
+    private static final int MAX_RECOMMENDATIONS = 500;
+    private static final int MAX_PAGE_SIZE = 100;
 
     /**
-     * Get all available jobs
+     * Get all available jobs, newest first by default. With a resume id they
+     * carry match scores and keywords and can be sorted by match score.
+     * Passing a cursor or limit returns one page with a cursor to the next;
+     * fields limits each job to the named fields. Responses without a resume
+     * are served from the response cache and support If-None-Match.
      */
     @GetMapping
-    public ResponseEntity<?> getJobs(@AuthenticationPrincipal OidcUser user) {
+    public ResponseEntity<?> getJobs(
+            @RequestParam(value = "resumeId", required = false) String resumeId,
+            @RequestParam(value = "sort", required = false) String sort,
+            @RequestParam(value = "order", defaultValue = "desc") String order,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestParam(value = "fields", required = false) String fields,
+            @RequestHeader HttpHeaders headers,
+            @AuthenticationPrincipal OidcUser user) {
         try {
-            List<Job> jobs = jobService.getJobs();
-            return ResponseEntity.ok(jobs);
+            JobProjection projection = JobProjection.of(fields);
+            JobService.JobOrder jobOrder = parseOrder(sort, order, resumeId != null);
+
+            if (resumeId == null) {
+                boolean listing = cursor == null && limit == null;
+                String requestKey = listing
+                        ? String.format("jobs?order=%s&fields=%s", jobOrder, projection.key())
+                        : String.format("jobs?order=%s&fields=%s&cursor=%s&limit=%s",
+                                jobOrder, projection.key(), cursor, limit);
+                return cachedResponse(requestKey, listing, headers, true, () ->
+                        listJobs(jobService.getJobs(jobOrder), jobOrder, cursor, limit, projection));
+            }
+
+            Optional<Resume> resume = resumeService.getResume(resumeId, user.getSubject());
+            if (resume.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            List<Job> ranked = jobService.rankJobs(resumeId, resume.get().getText(), jobOrder);
+            return ResponseEntity.ok(listJobs(ranked, jobOrder, cursor, limit, projection));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             log.error("Error fetching jobs", e);
             return ResponseEntity.internalServerError()
@@ -35,6 +104,138 @@ public class JobController {
         }
     }
 
+    /**
+     * Get the k jobs that best match a resume, one page at a time
+     */
+    @GetMapping("/recommended")
+    public ResponseEntity<?> getRecommendedJobs(
+            @RequestParam String resumeId,
+            @RequestParam(defaultValue = "50") int k,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @AuthenticationPrincipal OidcUser user) {
+        try {
+            if (k <= 0 || k > MAX_RECOMMENDATIONS || page < 0 || size <= 0 || size > MAX_PAGE_SIZE) {
+                return ResponseEntity.badRequest().body(Map.of("error", String.format(
+                        "k must be 1-%d, page at least 0 and size 1-%d", MAX_RECOMMENDATIONS, MAX_PAGE_SIZE)));
+            }
+
+            Optional<Resume> resume = resumeService.getResume(resumeId, user.getSubject());
+            if (resume.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+
+            List<Job> recommended = jobService.recommendJobs(resumeId, resume.get().getText(), k);
+            int from = (int) Math.min((long) page * size, recommended.size());
+            int to = Math.min(from + size, recommended.size());
+            return ResponseEntity.ok(Map.of(
+                "jobs", recommended.subList(from, to),
+                "page", page,
+                "size", size,
+                "total", recommended.size()
+            ));
+        } catch (Exception e) {
+            log.error("Error fetching recommended jobs", e);
+            return ResponseEntity.internalServerError()
+                    .body(Map.of("error", "Failed to fetch recommended jobs: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * The whole ordered list, or one page of it when a cursor or limit is given
+     */
+    private Object listJobs(List<Job> jobs, JobService.JobOrder jobOrder, String cursor, Integer limit,
+                            JobProjection projection) {
+        if (cursor == null && limit == null) {
+            return projection.apply(jobs);
+        }
+
+        JobService.JobPage page = jobService.pageJobs(jobs, jobOrder, cursor, limit);
+        Map<String, Object> body = new HashMap<>();
+        body.put("jobs", projection.apply(page.jobs()));
+        body.put("next_cursor", page.nextCursor());
+        return body;
+    }
+
+    /**
+     * Map sort and order parameters to a job order; match score sorts best first
+     */
+    private JobService.JobOrder parseOrder(String sort, String order, boolean hasResume) {
+        boolean ascending = switch (order) {
+            case "asc" -> true;
+            case "desc" -> false;
+            default -> throw new IllegalArgumentException("order must be asc or desc");
+        };
+        String field = sort != null ? sort : hasResume ? "matchScore" : "listedAt";
+        return switch (field) {
+            case "listedAt" -> ascending ? JobService.JobOrder.OLDEST : JobService.JobOrder.NEWEST;
+            case "matchScore" -> {
+                if (!hasResume || ascending) {
+                    throw new IllegalArgumentException("Sorting by matchScore needs a resumeId and descending order");
+                }
+                yield JobService.JobOrder.BEST_MATCH;
+            }
+            default -> throw new IllegalArgumentException("sort must be listedAt or matchScore");
+        };
+    }
+
+    /**
+     * Stream jobs listed in [from, to) that match the filter as NDJSON, newest
+     * first. Jobs are written one at a time straight to the response, so
+     * memory use does not grow with the size of the window.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<?> exportJobs(
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(value = "fields", required = false) String fields,
+            JobFilter filter,
+            @AuthenticationPrincipal OidcUser user) {
+        try {
+            if (from != null && to != null && !from.isBefore(to)) {
+                return ResponseEntity.badRequest().body(Map.of("error", "from must be before to"));
+            }
+            JobProjection projection = JobProjection.of(fields);
+            Stream<Job> jobs = jobService.exportJobs(filter, from, to);
+
+            StreamingResponseBody body = out -> writeNdjson(jobs, projection, out);
+            return ResponseEntity.ok().contentType(NDJSON).body(body);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            log.error("Error exporting jobs", e);
+            return ResponseEntity.internalServerError()
+                    .body(Map.of("error", "Failed to export jobs: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Write jobs as NDJSON through one generator; the writer does not flush
+     * per value, so output leaves in generator-sized chunks
+     */
+    long writeNdjson(Stream<Job> jobs, JobProjection projection, OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        AtomicLong written = new AtomicLong();
+        long started = System.nanoTime();
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.setRootValueSeparator(null);
+            jobs.forEach(job -> {
+                try {
+                    projection.write(generator, writer, job);
+                    generator.writeRaw('\n');
+                    written.incrementAndGet();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            log.warn("Job export stopped after {} jobs: {}", written.get(), e.getCause().getMessage());
+            throw e.getCause();
+        }
+        log.debug("Exported {} jobs in {} ms", written.get(), (System.nanoTime() - started) / 1_000_000);
+        return written.get();
+    }
+
     /**
      * Get job by ID
      */
@@ -78,24 +279,7 @@ public class JobController {
     @GetMapping("/stats")
     public ResponseEntity<?> getJobStats(@AuthenticationPrincipal OidcUser user) {
         try {
-            List<Job> jobs = jobService.getJobs();
-            
-            // Calculate statistics
-            long totalJobs = jobs.size();
-            long recentJobs = jobs.stream()
-                    .filter(Job::isRecent)
-                    .count();
-            
-            Map<String, Object> stats = Map.of(
-                "total_jobs", totalJobs,
-                "recent_jobs", recentJobs,
-                "last_update", jobs.stream()
-                    .map(Job::getListedAt)
-                    .max(java.time.Instant::compareTo)
-                    .orElse(null)
-            );
-            
-            return ResponseEntity.ok(stats);
+            return ResponseEntity.ok(jobService.getJobStats());
         } catch (Exception e) {
             log.error("Error fetching job statistics", e);
             return ResponseEntity.internalServerError()
@@ -109,24 +293,13 @@ public class JobController {
     @GetMapping("/search")
     public ResponseEntity<?> searchJobs(
             @RequestParam String keyword,
+            @RequestHeader HttpHeaders headers,
             @AuthenticationPrincipal OidcUser user) {
         try {
-            List<Job> jobs = jobService.getJobs();
-            
-            List<Job> matchingJobs = jobs.stream()
-                    .filter(job -> 
-                        (job.getTitle() != null && 
-                            job.getTitle().toLowerCase().contains(keyword.toLowerCase())) ||
-                        (job.getDescription() != null && 
-                            job.getDescription().toLowerCase().contains(keyword.toLowerCase())) ||
-                        (job.getSkills() != null && 
-                            job.getSkills().stream()
-                                .anyMatch(skill -> 
-                                    skill.toLowerCase().contains(keyword.toLowerCase())))
-                    )
-                    .toList();
-            
-            return ResponseEntity.ok(matchingJobs);
+            // Results depend only on the set of query terms
+            String terms = String.join(" ", new TreeSet<>(JobTextTokenizer.tokenize(keyword)));
+            return cachedResponse("search?terms=" + terms, false, headers, true,
+                    () -> jobService.searchJobs(keyword));
         } catch (Exception e) {
             log.error("Error searching jobs", e);
             return ResponseEntity.internalServerError()
@@ -135,47 +308,86 @@ public class JobController {
     }
 
     /**
-     * Filter jobs by criteria
+     * Filter jobs by location, employment type, experience level, source and
+     * company, returning the matches with value counts for each of those fields.
+     * The body comes from the response cache; being a POST it is never a 304.
      */
     @PostMapping("/filter")
     public ResponseEntity<?> filterJobs(
-            @RequestBody Map<String, Object> filters,
+            @RequestBody JobFilter filter,
+            @RequestHeader HttpHeaders headers,
             @AuthenticationPrincipal OidcUser user) {
         try {
-            List<Job> jobs = jobService.getJobs();
-            
-            // Apply filters
-            List<Job> filteredJobs = jobs.stream()
-                    .filter(job -> {
-                        boolean matches = true;
-                        
-                        if (filters.containsKey("location")) {
-                            String location = (String) filters.get("location");
-                            matches &= job.getLocation() != null && 
-                                job.getLocation().toLowerCase().contains(location.toLowerCase());
-                        }
-                        
-                        if (filters.containsKey("employmentType")) {
-                            String type = (String) filters.get("employmentType");
-                            matches &= job.getEmploymentType() != null && 
-                                job.getEmploymentType().equalsIgnoreCase(type);
-                        }
-                        
-                        if (filters.containsKey("experienceLevel")) {
-                            String level = (String) filters.get("experienceLevel");
-                            matches &= job.getExperienceLevel() != null && 
-                                job.getExperienceLevel().equalsIgnoreCase(level);
-                        }
-                        
-                        return matches;
-                    })
-                    .toList();
-            
-            return ResponseEntity.ok(filteredJobs);
+            return cachedResponse("filter?" + filter, false, headers, false, () -> {
+                JobFacetIndex.FilterResult result = jobService.filterJobs(filter);
+                // Insertion-ordered so the serialized bytes are the same on every node
+                Map<String, Object> body = new LinkedHashMap<>();
+                body.put("jobs", result.jobs());
+                body.put("facets", result.facets());
+                body.put("total", result.jobs().size());
+                return body;
+            });
         } catch (Exception e) {
             log.error("Error filtering jobs", e);
             return ResponseEntity.internalServerError()
                     .body(Map.of("error", "Failed to filter jobs: " + e.getMessage()));
         }
     }
+
+    /**
+     * Serve a body built from the current job window through the response
+     * cache: a 304 when the client already holds it, otherwise the cached
+     * bytes, gzipped when the client accepts gzip. Unpaged listings are kept
+     * apart from pages and queries.
+     */
+    private ResponseEntity<?> cachedResponse(String requestKey, boolean listing, HttpHeaders headers,
+                                             boolean conditional, Supplier<?> body) throws IOException {
+        String window = jobService.getWindowKey();
+        boolean gzip = acceptsGzip(headers);
+        String etag = JobResponseCache.etag(window, requestKey);
+
+        if (conditional && JobResponseCache.matches(headers.getIfNoneMatch(), etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(gzip ? JobResponseCache.gzipEtag(etag) : etag)
+                    .cacheControl(CacheControl.noCache().cachePrivate())
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+
+        JobResponseCache.CachedBody cached = jobResponseCache.get(window, requestKey, listing,
+                jobService::getWindowKey, body);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip && cached.gzip() != null) {
+            response.eTag(cached.gzipEtag()).header(HttpHeaders.CONTENT_ENCODING, "gzip");
+            return response.body(cached.gzip());
+        }
+        if (cached.etag() != null) {
+            response.eTag(cached.etag());
+        }
+        return response.body(cached.identityBytes());
+    }
+
+    /**
+     * Whether Accept-Encoding allows gzip; an explicit gzip entry overrides "*", and q=0 refuses
+     */
+    private static boolean acceptsGzip(HttpHeaders headers) {
+        Boolean wildcard = null;
+        for (String header : headers.getOrEmpty(HttpHeaders.ACCEPT_ENCODING)) {
+            for (String coding : header.split(",")) {
+                String[] parts = coding.split(";");
+                String name = parts[0].trim().toLowerCase(Locale.ROOT);
+                boolean accepted = parts.length < 2 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+                if (name.equals("gzip")) {
+                    return accepted;
+                }
+                if (name.equals("*")) {
+                    wildcard = accepted;
+                }
+            }
+        }
+        return Boolean.TRUE.equals(wildcard);
+    }
 }
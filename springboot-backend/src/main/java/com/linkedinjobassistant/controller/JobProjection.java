@@ -0,0 +1,122 @@
+package com.linkedinjobassistant.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.linkedinjobassistant.model.Job;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * The subset of job fields a client asked for with a comma-separated
+ * "fields" parameter. The id is always included; no parameter means
+ * the full job.
+ */
+final class JobProjection {
+
+    private static final Map<String, Function<Job, Object>> FIELDS = new LinkedHashMap<>();
+
+    static {
+        FIELDS.put("id", Job::getId);
+        FIELDS.put("title", Job::getTitle);
+        FIELDS.put("companyName", Job::getCompanyName);
+        FIELDS.put("jobPostingUrl", Job::getJobPostingUrl);
+        FIELDS.put("description", Job::getDescription);
+        FIELDS.put("location", Job::getLocation);
+        FIELDS.put("skills", Job::getSkills);
+        FIELDS.put("employmentType", Job::getEmploymentType);
+        FIELDS.put("experienceLevel", Job::getExperienceLevel);
+        FIELDS.put("listedAt", Job::getListedAt);
+        FIELDS.put("source", Job::getSource);
+        FIELDS.put("matchScore", Job::getMatchScore);
+        FIELDS.put("matchedKeywords", Job::getMatchedKeywords);
+        FIELDS.put("missingKeywords", Job::getMissingKeywords);
+    }
+
+    private static final JobProjection ALL = new JobProjection(null);
+
+    // Selected fields in declaration order, or null for the full job
+    private final List<String> fields;
+
+    private JobProjection(List<String> fields) {
+        this.fields = fields;
+    }
+
+    /**
+     * Parse a fields parameter, rejecting names a job does not have
+     */
+    static JobProjection of(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+
+        Set<String> requested = new HashSet<>();
+        requested.add("id");
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!FIELDS.containsKey(name)) {
+                throw new IllegalArgumentException("Unknown job field: " + name);
+            }
+            requested.add(name);
+        }
+
+        // Declaration order, so equivalent parameters give the same projection and output
+        List<String> selected = new ArrayList<>();
+        FIELDS.keySet().stream().filter(requested::contains).forEach(selected::add);
+        return new JobProjection(List.copyOf(selected));
+    }
+
+    /**
+     * Canonical form of the projection, for cache keys
+     */
+    String key() {
+        return isAll() ? "*" : String.join(",", fields);
+    }
+
+    boolean isAll() {
+        return fields == null;
+    }
+
+    /**
+     * Project a list of jobs; the full projection returns the jobs unchanged
+     */
+    List<?> apply(List<Job> jobs) {
+        if (isAll()) {
+            return jobs;
+        }
+        List<Map<String, Object>> projected = new ArrayList<>(jobs.size());
+        for (Job job : jobs) {
+            Map<String, Object> values = new LinkedHashMap<>();
+            for (String field : fields) {
+                values.put(field, FIELDS.get(field).apply(job));
+            }
+            projected.add(values);
+        }
+        return projected;
+    }
+
+    /**
+     * Write one projected job as a JSON object, serializing values with the given writer
+     */
+    void write(JsonGenerator generator, ObjectWriter writer, Job job) throws IOException {
+        if (isAll()) {
+            writer.writeValue(generator, job);
+            return;
+        }
+        generator.writeStartObject();
+        for (String field : fields) {
+            generator.writeFieldName(field);
+            writer.writeValue(generator, FIELDS.get(field).apply(job));
+        }
+        generator.writeEndObject();
+    }
+}
@@ -1,10 +1,14 @@
 package com.linkedinjobassistant.controller;
 
 import com.linkedinjobassistant.model.Profile;
+import com.linkedinjobassistant.model.Resume;
 import com.linkedinjobassistant.service.AIService;
+import com.linkedinjobassistant.service.ProfileService;
 import com.linkedinjobassistant.service.ResumeService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.core.oidc.user.OidcUser;
@@ -12,6 +16,10 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/profile")
@@ -21,75 +29,120 @@ public class ProfileController {
 
     private final AIService aiService;
     private final ResumeService resumeService;
+    private final ProfileService profileService;
 
     /**
      * Generate LinkedIn profile from resume
      */
     @PostMapping("/generate")
-    public ResponseEntity<?> generateProfile(
+    public CompletableFuture<ResponseEntity<?>> generateProfile(
             @RequestParam("resume") MultipartFile file,
             @AuthenticationPrincipal OidcUser user) {
         try {
             if (!file.getOriginalFilename().toLowerCase().endsWith(".pdf")) {
-                return ResponseEntity.badRequest()
-                        .body(Map.of("error", "Please upload a PDF file"));
+                return CompletableFuture.completedFuture(ResponseEntity.badRequest()
+                        .body(Map.of("error", "Please upload a PDF file")));
             }
 
             // Process resume first
-            String resumeText = resumeService.extractText(file);
-            
-            // Generate profile
-            Profile profile = aiService.generateProfile(resumeText);
-            
-            // Calculate profile strength
-            profile.updateProfileStrength();
-            
-            // Add default profile picture if not present
-            if (profile.getProfilePicture() == null || profile.getProfilePicture().isEmpty()) {
-                profile.setProfilePicture("https://via.placeholder.com/150");
-            }
+            String resumeText = resumeService.extractText(file, user.getSubject());
             
-            return ResponseEntity.ok(profile);
+            // Generate profile without holding the servlet thread
+            return profileService.generate(resumeText, ProfileController::completeProfile)
+                    .<ResponseEntity<?>>thenApply(ResponseEntity::ok)
+                    .exceptionally(e -> failure("Failed to generate profile", e));
         } catch (Exception e) {
-            log.error("Error generating profile", e);
-            return ResponseEntity.internalServerError()
-                    .body(Map.of("error", "Failed to generate profile: " + e.getMessage()));
+            return CompletableFuture.completedFuture(failure("Failed to generate profile", e));
         }
     }
 
     /**
-     * Generate profile from existing resume
+     * Get the stored profile for an existing resume
      */
-    @PostMapping("/generate/{resumeId}")
-    public ResponseEntity<?> generateProfileFromExisting(
+    @GetMapping("/{resumeId}")
+    public ResponseEntity<?> getProfile(
             @PathVariable String resumeId,
             @AuthenticationPrincipal OidcUser user) {
         try {
             return resumeService.getResume(resumeId, user.getSubject())
-                    .map(resume -> {
-                        Profile profile = aiService.generateProfile(resume.getText());
-                        profile.updateProfileStrength();
-                        
-                        if (profile.getProfilePicture() == null || profile.getProfilePicture().isEmpty()) {
-                            profile.setProfilePicture("https://via.placeholder.com/150");
-                        }
-                        
-                        return ResponseEntity.ok(profile);
-                    })
+                    .flatMap(profileService::findCurrent)
+                    .<ResponseEntity<?>>map(ResponseEntity::ok)
                     .orElse(ResponseEntity.notFound().build());
         } catch (Exception e) {
-            log.error("Error generating profile from existing resume", e);
+            log.error("Error fetching profile", e);
             return ResponseEntity.internalServerError()
-                    .body(Map.of("error", "Failed to generate profile: " + e.getMessage()));
+                    .body(Map.of("error", "Failed to fetch profile: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Generate profile from existing resume, or return the stored one
+     * if the resume text has not changed since it was generated
+     */
+    @PostMapping("/generate/{resumeId}")
+    public CompletableFuture<ResponseEntity<?>> generateProfileFromExisting(
+            @PathVariable String resumeId,
+            @AuthenticationPrincipal OidcUser user) {
+        try {
+            Optional<Resume> resume = resumeService.getResume(resumeId, user.getSubject());
+            if (resume.isEmpty()) {
+                return CompletableFuture.completedFuture(ResponseEntity.notFound().build());
+            }
+
+            return profileService.getOrGenerate(resume.get(), ProfileController::completeProfile)
+                    .<ResponseEntity<?>>thenApply(ResponseEntity::ok)
+                    .exceptionally(e -> failure("Failed to generate profile", e));
+        } catch (Exception e) {
+            return CompletableFuture.completedFuture(failure("Failed to generate profile", e));
+        }
+    }
+
+    /**
+     * Stream profile generation from an existing resume as Server-Sent Events:
+     * raw "token" chunks, a "section" event per completed profile section,
+     * then the finished "profile". A stored profile for the current resume
+     * text is sent straight away as the "profile" event. A failed generation
+     * ends with an "error" event and nothing is stored.
+     */
+    @PostMapping(value = "/generate/{resumeId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<?> streamProfileFromExisting(
+            @PathVariable String resumeId,
+            @AuthenticationPrincipal OidcUser user) {
+        Optional<Resume> resume = resumeService.getResume(resumeId, user.getSubject());
+        if (resume.isEmpty()) {
+            return ResponseEntity.notFound().build();
         }
+
+        SseStream stream = new SseStream();
+        Optional<Profile> stored = profileService.findCurrent(resume.get());
+        if (stored.isPresent()) {
+            stream.bind(CompletableFuture.completedFuture(stored.get()), "profile", profile -> profile);
+            return ResponseEntity.ok(stream.emitter());
+        }
+
+        CompletableFuture<Profile> generation = aiService.streamProfile(resume.get().getText(),
+                token -> stream.send("token", Map.of("text", token)),
+                (name, value) -> stream.send("section", Map.of("name", name, "value", value)));
+        RejectedExecutionException rejected = SseStream.rejection(generation);
+        if (rejected != null) {
+            return failure("Failed to stream profile", rejected);
+        }
+        CompletableFuture<Profile> saved = generation
+                .thenApply(profile -> profileService.save(resume.get(), completeProfile(profile), false));
+        // Cancelling the saved stage does not reach the stream it depends on
+        saved.whenComplete((profile, error) -> generation.cancel(true));
+        stream.bind(saved, "profile", profile -> profile);
+        return ResponseEntity.ok(stream.emitter());
     }
 
     /**
-     * Update profile sections
+     * Update profile sections; with a resume id the edited profile is stored
+     * and replaces the generated one for that resume
      */
     @PutMapping("/update")
     public ResponseEntity<?> updateProfile(
             @RequestBody Profile profile,
+            @RequestParam(value = "resumeId", required = false) String resumeId,
             @AuthenticationPrincipal OidcUser user) {
         try {
             // Validate profile data
@@ -101,6 +154,14 @@ public class ProfileController {
             // Update profile strength
             profile.updateProfileStrength();
             
+            if (resumeId != null) {
+                Optional<Resume> resume = resumeService.getResume(resumeId, user.getSubject());
+                if (resume.isEmpty()) {
+                    return ResponseEntity.notFound().build();
+                }
+                profileService.save(resume.get(), profile, true);
+            }
+            
             return ResponseEntity.ok(Map.of(
                 "message", "Profile updated successfully",
                 "profile", profile,
@@ -144,6 +205,32 @@ public class ProfileController {
         }
     }
 
+    /**
+     * Calculate profile strength and add a default profile picture if not present
+     */
+    static Profile completeProfile(Profile profile) {
+        profile.updateProfileStrength();
+        
+        if (profile.getProfilePicture() == null || profile.getProfilePicture().isEmpty()) {
+            profile.setProfilePicture("https://via.placeholder.com/150");
+        }
+        return profile;
+    }
+
+    /**
+     * Map a failed AI call to an error response; 503 when the AI pool is saturated
+     */
+    private ResponseEntity<?> failure(String message, Throwable e) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        if (cause instanceof RejectedExecutionException) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(Map.of("error", message + ": AI service is busy, please retry"));
+        }
+        log.error(message, cause);
+        return ResponseEntity.internalServerError()
+                .body(Map.of("error", message + ": " + cause.getMessage()));
+    }
+
     // Helper methods for profile analysis
     private int calculateBasicInfoScore(Profile profile) {
         int score = 0;
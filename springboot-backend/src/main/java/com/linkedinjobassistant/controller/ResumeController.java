@@ -1,18 +1,26 @@
 package com.linkedinjobassistant.controller;
 
 import com.linkedinjobassistant.model.Resume;
+import com.linkedinjobassistant.service.AIRequestCoalescer;
 import com.linkedinjobassistant.service.AIService;
+import com.linkedinjobassistant.service.ProfileService;
 import com.linkedinjobassistant.service.ResumeService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.core.oidc.user.OidcUser;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api")
@@ -21,7 +29,9 @@ import java.util.Map;
 public class ResumeController {
 
     private final ResumeService resumeService;
+    private final AIRequestCoalescer aiRequestCoalescer;
     private final AIService aiService;
+    private final ProfileService profileService;
 
     /**
      * Upload a new resume
@@ -35,12 +45,18 @@ public class ResumeController {
                 return ResponseEntity.badRequest().body(Map.of("error", "Please upload a PDF file"));
             }
 
-            Resume resume = resumeService.processResume(file, user.getSubject());
+            ResumeService.ProcessedResume processed = resumeService.processResume(file, user.getSubject());
+            Resume resume = processed.resume();
             
-            return ResponseEntity.ok(Map.of(
-                "resume_id", resume.getId(),
-                "message", "Resume uploaded successfully"
-            ));
+            Map<String, Object> response = new HashMap<>();
+            response.put("resume_id", resume.getId());
+            response.put("message", processed.dedup()
+                    ? "Resume already uploaded" : "Resume uploaded successfully");
+            response.put("dedup", processed.dedup());
+            if (processed.dedup() && resume.getCachedAnalysis() != null) {
+                response.put("cached_analysis", resume.getCachedAnalysis());
+            }
+            return ResponseEntity.ok(response);
         } catch (Exception e) {
             log.error("Error uploading resume", e);
             return ResponseEntity.internalServerError()
@@ -49,10 +65,11 @@ public class ResumeController {
     }
 
     /**
-     * Analyze resume against job description
+     * Analyze resume against job description.
+     * The servlet thread is released while the AI call is in flight.
      */
     @PostMapping("/analyze")
-    public ResponseEntity<?> analyzeJob(
+    public CompletableFuture<ResponseEntity<?>> analyzeJob(
             @RequestBody Map<String, String> request,
             @AuthenticationPrincipal OidcUser user) {
         try {
@@ -60,23 +77,24 @@ public class ResumeController {
             String jobDescription = request.get("job_description");
 
             if (resumeId == null || jobDescription == null) {
-                return ResponseEntity.badRequest()
-                        .body(Map.of("error", "Missing resume_id or job_description"));
+                return CompletableFuture.completedFuture(ResponseEntity.badRequest()
+                        .body(Map.of("error", "Missing resume_id or job_description")));
+            }
+
+            Optional<Resume> resume = resumeService.getResume(resumeId, user.getSubject());
+            if (resume.isEmpty()) {
+                return CompletableFuture.completedFuture(ResponseEntity.notFound().build());
             }
 
-            return resumeService.getResume(resumeId, user.getSubject())
-                    .map(resume -> {
-                        Map<String, Object> analysis = aiService.analyzeJobMatch(
-                                resume.getText(), jobDescription);
+            return aiRequestCoalescer.analyzeJobMatch(resume.get().getText(), jobDescription)
+                    .<ResponseEntity<?>>thenApply(analysis -> {
                         resumeService.updateAnalysis(resumeId, user.getSubject(), 
                                 analysis.toString());
                         return ResponseEntity.ok(analysis);
                     })
-                    .orElse(ResponseEntity.notFound().build());
+                    .exceptionally(e -> failure("Analysis failed", e));
         } catch (Exception e) {
-            log.error("Error analyzing job", e);
-            return ResponseEntity.internalServerError()
-                    .body(Map.of("error", "Analysis failed: " + e.getMessage()));
+            return CompletableFuture.completedFuture(failure("Analysis failed", e));
         }
     }
 
@@ -84,7 +102,7 @@ public class ResumeController {
      * Generate tailored resume points
      */
     @PostMapping("/tailor")
-    public ResponseEntity<?> tailorResume(
+    public CompletableFuture<ResponseEntity<?>> tailorResume(
             @RequestBody Map<String, Object> request,
             @AuthenticationPrincipal OidcUser user) {
         try {
@@ -94,24 +112,56 @@ public class ResumeController {
             List<String> keywords = (List<String>) request.get("keywords");
 
             if (resumeId == null || jobDescription == null || keywords == null) {
-                return ResponseEntity.badRequest()
-                        .body(Map.of("error", "Missing required parameters"));
+                return CompletableFuture.completedFuture(ResponseEntity.badRequest()
+                        .body(Map.of("error", "Missing required parameters")));
             }
 
-            return resumeService.getResume(resumeId, user.getSubject())
-                    .map(resume -> {
-                        List<String> points = aiService.generateTailoredPoints(
-                                resume.getText(), jobDescription, keywords);
-                        return ResponseEntity.ok(Map.of("tailored_points", points));
-                    })
-                    .orElse(ResponseEntity.notFound().build());
+            Optional<Resume> resume = resumeService.getResume(resumeId, user.getSubject());
+            if (resume.isEmpty()) {
+                return CompletableFuture.completedFuture(ResponseEntity.notFound().build());
+            }
+
+            return aiRequestCoalescer.generateTailoredPoints(resume.get().getText(), jobDescription, keywords)
+                    .<ResponseEntity<?>>thenApply(points -> ResponseEntity.ok(Map.of("tailored_points", points)))
+                    .exceptionally(e -> failure("Failed to generate points", e));
         } catch (Exception e) {
-            log.error("Error generating tailored points", e);
-            return ResponseEntity.internalServerError()
-                    .body(Map.of("error", "Failed to generate points: " + e.getMessage()));
+            return CompletableFuture.completedFuture(failure("Failed to generate points", e));
         }
     }
 
+    /**
+     * Stream tailored resume points as Server-Sent Events: raw "token" chunks,
+     * then the full text in a "done" event
+     */
+    @PostMapping("/tailor/stream")
+    public ResponseEntity<?> streamTailoredPoints(
+            @RequestBody Map<String, Object> request,
+            @AuthenticationPrincipal OidcUser user) {
+        String resumeId = (String) request.get("resume_id");
+        String jobDescription = (String) request.get("job_description");
+        @SuppressWarnings("unchecked")
+        List<String> keywords = (List<String>) request.get("keywords");
+
+        if (resumeId == null || jobDescription == null || keywords == null) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Missing required parameters"));
+        }
+
+        Optional<Resume> resume = resumeService.getResume(resumeId, user.getSubject());
+        if (resume.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        SseStream stream = new SseStream();
+        CompletableFuture<String> points = aiService.streamTailoredPoints(resume.get().getText(), jobDescription,
+                keywords, token -> stream.send("token", Map.of("text", token)));
+        RejectedExecutionException rejected = SseStream.rejection(points);
+        if (rejected != null) {
+            return failure("Failed to stream points", rejected);
+        }
+        stream.bind(points, "done", text -> Map.of("text", text));
+        return ResponseEntity.ok(stream.emitter());
+    }
+
     /**
      * Delete a resume
      */
@@ -121,6 +171,7 @@ public class ResumeController {
             @AuthenticationPrincipal OidcUser user) {
         try {
             resumeService.deleteResume(id, user.getSubject());
+            profileService.deleteProfile(id, user.getSubject());
             return ResponseEntity.ok(Map.of("message", "Resume deleted successfully"));
         } catch (Exception e) {
             log.error("Error deleting resume", e);
@@ -130,17 +181,40 @@ public class ResumeController {
     }
 
     /**
-     * Get user's resumes
+     * Get user's resumes as summaries, newest first, one page at a time
      */
     @GetMapping("/resumes")
-    public ResponseEntity<?> getUserResumes(@AuthenticationPrincipal OidcUser user) {
+    public ResponseEntity<?> getUserResumes(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @AuthenticationPrincipal OidcUser user) {
         try {
-            List<Resume> resumes = resumeService.findByUserId(user.getSubject());
-            return ResponseEntity.ok(resumes);
+            ResumeService.ResumePage page = resumeService.listResumes(user.getSubject(), cursor, limit);
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("resumes", page.resumes());
+            response.put("next_cursor", page.nextCursor());
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             log.error("Error fetching user resumes", e);
             return ResponseEntity.internalServerError()
                     .body(Map.of("error", "Failed to fetch resumes: " + e.getMessage()));
         }
     }
+
+    /**
+     * Map a failed AI call to an error response; 503 when the AI pool is saturated
+     */
+    private ResponseEntity<?> failure(String message, Throwable e) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        if (cause instanceof RejectedExecutionException) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(Map.of("error", message + ": AI service is busy, please retry"));
+        }
+        log.error(message, cause);
+        return ResponseEntity.internalServerError()
+                .body(Map.of("error", message + ": " + cause.getMessage()));
+    }
 }
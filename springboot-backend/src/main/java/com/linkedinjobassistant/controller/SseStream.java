@@ -0,0 +1,102 @@
+package com.linkedinjobassistant.controller;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+
+/**
+ * Server-Sent Events stream for a streamed AI call. Sends are ignored once
+ * the client has gone away, and a disconnect or timeout cancels the upstream
+ * call so the model stops generating for a client that left.
+ */
+@Slf4j
+final class SseStream {
+
+    private final SseEmitter emitter = new SseEmitter();
+    private volatile boolean closed;
+    private volatile CompletableFuture<?> call;
+
+    SseStream() {
+        emitter.onCompletion(this::close);
+        emitter.onTimeout(this::close);
+        emitter.onError(e -> close());
+        // Flush something immediately so the client sees the stream open
+        send("started", Map.of());
+    }
+
+    SseEmitter emitter() {
+        return emitter;
+    }
+
+    /**
+     * The rejection of a call that was refused before it started, so the
+     * request can be answered with a status instead of an event stream
+     */
+    static RejectedExecutionException rejection(CompletableFuture<?> call) {
+        if (!call.isCompletedExceptionally()) {
+            return null;
+        }
+        try {
+            call.getNow(null);
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RejectedExecutionException rejected) {
+                return rejected;
+            }
+        } catch (CancellationException e) {
+            // Not a rejection
+        }
+        return null;
+    }
+
+    /**
+     * Send one named event; data is written as JSON
+     */
+    void send(String name, Object data) {
+        if (closed) {
+            return;
+        }
+        try {
+            emitter.send(SseEmitter.event().name(name).data(data));
+        } catch (IOException | IllegalStateException e) {
+            log.debug("SSE client went away", e);
+            closed = true;
+        }
+    }
+
+    /**
+     * Finish the stream once the call completes, and cancel the call if the client leaves first
+     */
+    <T> void bind(CompletableFuture<T> call, String doneEvent, Function<? super T, ?> toEvent) {
+        this.call = call;
+        if (closed) {
+            call.cancel(true);
+            return;
+        }
+        call.whenComplete((result, error) -> {
+            if (error != null) {
+                if (!call.isCancelled()) {
+                    log.error("Streamed AI call failed", error);
+                    send("error", Map.of("error", String.valueOf(error.getMessage())));
+                }
+            } else {
+                send(doneEvent, toEvent.apply(result));
+            }
+            emitter.complete();
+        });
+    }
+
+    private void close() {
+        closed = true;
+        CompletableFuture<?> bound = call;
+        if (bound != null) {
+            bound.cancel(true);
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.linkedinjobassistant.controller;
+
+import com.linkedinjobassistant.model.AnalysisTask;
+import com.linkedinjobassistant.model.Resume;
+import com.linkedinjobassistant.service.AIRequestCoalescer;
+import com.linkedinjobassistant.service.AnalysisTaskService;
+import com.linkedinjobassistant.service.PdfTextExtractor;
+import com.linkedinjobassistant.service.ProfileService;
+import com.linkedinjobassistant.service.ResumeService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.core.oidc.user.OidcUser;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Task-based variants of the analyze, tailor and profile endpoints.
+ * Each submission returns a task id at once; clients poll the status
+ * endpoint or listen on the SSE stream for the result.
+ */
+@RestController
+@RequestMapping("/api/tasks")
+@RequiredArgsConstructor
+@Slf4j
+public class TaskController {
+
+    private final AnalysisTaskService analysisTaskService;
+    private final AIRequestCoalescer aiRequestCoalescer;
+    private final ResumeService resumeService;
+    private final PdfTextExtractor pdfTextExtractor;
+    private final ProfileService profileService;
+
+    // Seconds a client should wait before resubmitting when the queue is full
+    private static final String RETRY_AFTER_SECONDS = "5";
+
+    /**
+     * Submit a resume/job description analysis
+     */
+    @PostMapping("/analyze")
+    public ResponseEntity<?> submitAnalysis(
+            @RequestBody Map<String, String> request,
+            @AuthenticationPrincipal OidcUser user) {
+        String resumeId = request.get("resume_id");
+        String jobDescription = request.get("job_description");
+
+        if (resumeId == null || jobDescription == null) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "Missing resume_id or job_description"));
+        }
+
+        Optional<Resume> resume = resumeService.getResume(resumeId, user.getSubject());
+        if (resume.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        return submit("analyze", user, () -> {
+            Map<String, Object> analysis = aiRequestCoalescer
+                    .analyzeJobMatch(resume.get().getText(), jobDescription).join();
+            resumeService.updateAnalysis(resumeId, user.getSubject(), analysis.toString());
+            return analysis;
+        });
+    }
+
+    /**
+     * Submit generation of tailored resume points
+     */
+    @PostMapping("/tailor")
+    public ResponseEntity<?> submitTailoring(
+            @RequestBody Map<String, Object> request,
+            @AuthenticationPrincipal OidcUser user) {
+        String resumeId = (String) request.get("resume_id");
+        String jobDescription = (String) request.get("job_description");
+        @SuppressWarnings("unchecked")
+        List<String> keywords = (List<String>) request.get("keywords");
+
+        if (resumeId == null || jobDescription == null || keywords == null) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "Missing required parameters"));
+        }
+
+        Optional<Resume> resume = resumeService.getResume(resumeId, user.getSubject());
+        if (resume.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        return submit("tailor", user, () -> Map.of("tailored_points", aiRequestCoalescer
+                .generateTailoredPoints(resume.get().getText(), jobDescription, keywords).join()));
+    }
+
+    /**
+     * Submit profile generation from an uploaded PDF; parsing happens in the task
+     */
+    @PostMapping("/profile")
+    public ResponseEntity<?> submitProfile(
+            @RequestParam("resume") MultipartFile file,
+            @AuthenticationPrincipal OidcUser user) {
+        if (file.getOriginalFilename() == null || !file.getOriginalFilename().toLowerCase().endsWith(".pdf")) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "Please upload a PDF file"));
+        }
+
+        PdfTextExtractor.SpooledPdf pdf;
+        try {
+            // The multipart temp file is gone once this request returns
+            pdf = pdfTextExtractor.spool(file);
+        } catch (Exception e) {
+            log.error("Error reading uploaded resume", e);
+            return ResponseEntity.internalServerError()
+                    .body(Map.of("error", "Failed to read resume: " + e.getMessage()));
+        }
+
+        ResponseEntity<?> response = submit("profile", user, () -> {
+            // Cleaned and deduplicated the same way as the synchronous profile endpoint
+            String resumeText = resumeService.extractText(pdf, user.getSubject());
+            return profileService.generate(resumeText, ProfileController::completeProfile).join();
+        });
+        if (!response.getStatusCode().equals(HttpStatus.ACCEPTED)) {
+            deleteQuietly(pdf.path());
+        }
+        return response;
+    }
+
+    /**
+     * Submit profile generation from an existing resume
+     */
+    @PostMapping("/profile/{resumeId}")
+    public ResponseEntity<?> submitProfileFromExisting(
+            @PathVariable String resumeId,
+            @AuthenticationPrincipal OidcUser user) {
+        Optional<Resume> resume = resumeService.getResume(resumeId, user.getSubject());
+        if (resume.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        return submit("profile", user, () -> profileService
+                .getOrGenerate(resume.get(), ProfileController::completeProfile).join());
+    }
+
+    /**
+     * Get task status and, once finished, its result
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<?> getTask(
+            @PathVariable String id,
+            @AuthenticationPrincipal OidcUser user) {
+        return analysisTaskService.getTask(id, user.getSubject())
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Stream task status as Server-Sent Events until it finishes
+     */
+    @GetMapping(value = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamTask(
+            @PathVariable String id,
+            @AuthenticationPrincipal OidcUser user) {
+        return analysisTaskService.getTask(id, user.getSubject())
+                .map(task -> ResponseEntity.ok(analysisTaskService.subscribe(task)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    private ResponseEntity<?> submit(String type, OidcUser user, Callable<Object> work) {
+        try {
+            AnalysisTask task = analysisTaskService.submit(type, user.getSubject(), work);
+            return ResponseEntity.accepted().body(Map.of(
+                "task_id", task.getId(),
+                "status", task.getStatus()
+            ));
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                    .body(Map.of("error", "Too many tasks queued, please retry shortly"));
+        } catch (Exception e) {
+            log.error("Error submitting {} task", type, e);
+            return ResponseEntity.internalServerError()
+                    .body(Map.of("error", "Failed to submit task: " + e.getMessage()));
+        }
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete spooled upload {}", file, e);
+        }
+    }
+}
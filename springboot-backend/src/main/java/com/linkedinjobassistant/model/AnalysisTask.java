@@ -0,0 +1,32 @@
+package com.linkedinjobassistant.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnalysisTask {
+
+    public enum Status {
+        QUEUED, RUNNING, SUCCEEDED, FAILED;
+
+        public boolean isTerminal() {
+            return this == SUCCEEDED || this == FAILED;
+        }
+    }
+
+    private String id;
+    private String type;  // e.g., "analyze", "tailor", "profile"
+    private String userId;
+    private Status status;
+    private Object result;
+    private String error;
+    private Instant createdAt;
+    private Instant updatedAt;
+}
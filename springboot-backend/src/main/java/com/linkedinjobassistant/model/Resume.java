@@ -3,12 +3,15 @@ package com.linkedinjobassistant.model;
 import lombok.Data;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.Instant;
 
 @Data
 @Document(collection = "resumes")
+@CompoundIndex(name = "user_content_hash", def = "{'userId': 1, 'contentHash': 1}")
+@CompoundIndex(name = "user_created", def = "{'userId': 1, 'createdAt': -1, '_id': -1}")
 public class Resume {
     
     @Id
@@ -23,6 +26,9 @@ public class Resume {
     
     private String userId;
     
+    // SHA-256 of the uploaded file, used to detect re-uploads
+    private String contentHash;
+    
     // Cached analysis results
     private String cachedAnalysis;
     
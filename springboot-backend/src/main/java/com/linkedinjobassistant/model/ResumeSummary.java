@@ -0,0 +1,26 @@
+package com.linkedinjobassistant.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * List view of a resume, without the extracted text or cached analysis
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResumeSummary {
+
+    private String id;
+
+    private String filename;
+
+    private Instant createdAt;
+
+    private boolean hasAnalysis;
+
+    private int textLength;
+}
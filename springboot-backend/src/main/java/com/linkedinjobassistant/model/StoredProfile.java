@@ -0,0 +1,40 @@
+package com.linkedinjobassistant.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * A generated or edited profile, stored per resume. The text hash records
+ * which version of the resume text the profile belongs to.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "profiles")
+public class StoredProfile {
+
+    // One profile per resume, so the resume id doubles as the document id
+    @Id
+    private String resumeId;
+
+    @Indexed
+    private String userId;
+
+    // SHA-256 of the resume text the profile was generated from
+    private String textHash;
+
+    // True once the user has saved their own changes
+    private boolean edited;
+
+    private Profile profile;
+
+    private Instant updatedAt;
+}
@@ -0,0 +1,14 @@
+package com.linkedinjobassistant.repository;
+
+import com.linkedinjobassistant.model.StoredProfile;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ProfileRepository extends MongoRepository<StoredProfile, String> {
+    
+    // Find the profile for a resume (for security)
+    Optional<StoredProfile> findByResumeIdAndUserId(String resumeId, String userId);
+}
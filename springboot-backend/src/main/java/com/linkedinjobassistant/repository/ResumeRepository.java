@@ -21,6 +21,9 @@ public interface ResumeRepository extends MongoRepository<Resume, String> {
     // Find resume by ID and user ID (for security)
     Optional<Resume> findByIdAndUserId(String id, String userId);
     
+    // Find a user's earlier upload of the same file
+    Optional<Resume> findFirstByUserIdAndContentHash(String userId, String contentHash);
+    
     // Find resumes with cached analysis
     @Query("{ 'userId': ?0, 'cachedAnalysis': { $exists: true, $ne: null } }")
     List<Resume> findAnalyzedResumesByUserId(String userId);
@@ -0,0 +1,64 @@
+package com.linkedinjobassistant.service;
+
+import com.linkedinjobassistant.cache.AIResultCache;
+import com.linkedinjobassistant.cache.SingleFlight;
+import com.linkedinjobassistant.model.Profile;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.UnaryOperator;
+
+/**
+ * Single-flight layer in front of {@link AIService}. Identical requests that
+ * arrive while one is already running (double clicks, client retries) wait
+ * for that call instead of starting another slow LLM request.
+ */
+@Service
+public class AIRequestCoalescer {
+
+    private final AIService aiService;
+    private final AIResultCache aiResultCache;
+
+    private final SingleFlight<String, Map<String, Object>> analyses;
+    private final SingleFlight<String, List<String>> tailoredPoints;
+    private final SingleFlight<String, Profile> profiles;
+
+    public AIRequestCoalescer(AIService aiService, AIResultCache aiResultCache, MeterRegistry meterRegistry) {
+        this.aiService = aiService;
+        this.aiResultCache = aiResultCache;
+        this.analyses = new SingleFlight<>(
+                meterRegistry.counter("ai.requests.coalesced", "operation", "analyze")::increment);
+        this.tailoredPoints = new SingleFlight<>(
+                meterRegistry.counter("ai.requests.coalesced", "operation", "tailor")::increment);
+        this.profiles = new SingleFlight<>(
+                meterRegistry.counter("ai.requests.coalesced", "operation", "profile")::increment);
+    }
+
+    /**
+     * Analyze resume against job description, sharing identical in-flight calls
+     */
+    public CompletableFuture<Map<String, Object>> analyzeJobMatch(String resumeText, String jobDescription) {
+        String key = aiResultCache.key("analyze", resumeText, jobDescription);
+        return analyses.execute(key, () -> aiService.analyzeJobMatch(resumeText, jobDescription));
+    }
+
+    /**
+     * Generate tailored resume points, sharing identical in-flight calls
+     */
+    public CompletableFuture<List<String>> generateTailoredPoints(String resumeText, String jobDescription, List<String> keywords) {
+        String key = aiResultCache.key("tailor", resumeText, jobDescription, String.join("\n", keywords));
+        return tailoredPoints.execute(key, () -> aiService.generateTailoredPoints(resumeText, jobDescription, keywords));
+    }
+
+    /**
+     * Generate a profile, sharing identical in-flight calls. The finisher runs once
+     * inside the shared call, so callers never mutate the same profile concurrently.
+     */
+    public CompletableFuture<Profile> generateProfile(String resumeText, UnaryOperator<Profile> finisher) {
+        String key = aiResultCache.key("profile", resumeText);
+        return profiles.execute(key, () -> aiService.generateProfile(resumeText).thenApply(finisher));
+    }
+}
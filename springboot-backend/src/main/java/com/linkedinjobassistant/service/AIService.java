@@ -1,24 +1,45 @@
 package com.linkedinjobassistant.service;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.linkedinjobassistant.cache.AIResultCache;
 import com.linkedinjobassistant.model.Job;
 import com.linkedinjobassistant.model.Profile;
 import com.theokanning.openai.completion.chat.ChatCompletionRequest;
 import com.theokanning.openai.completion.chat.ChatMessage;
 import com.theokanning.openai.service.OpenAiService;
+import io.reactivex.disposables.Disposable;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.HttpEntity;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 @Service
 @RequiredArgsConstructor
@@ -26,99 +47,316 @@ import java.util.Map;
 public class AIService {
 
     private final OpenAiService openAiService;
-    private final String googleApiKey;
     private final ObjectMapper objectMapper;
-    private final RestTemplate restTemplate;
+    private final HttpClient geminiHttpClient;
+    @Qualifier("aiExecutor")
+    private final ExecutorService aiExecutor;
+    private final AIResultCache aiResultCache;
 
-    private static final String GEMINI_API_URL = "https://generativelanguage.googleapis.com/v1beta/models/gemini-pro:generateContent";
+    @Value("${app.ai.google-api-key}")
+    private String googleApiKey;
+
+    @Value("${app.ai.gemini-url:https://generativelanguage.googleapis.com/v1beta/models/gemini-pro:generateContent}")
+    private String geminiApiUrl;
+
+    @Value("${app.ai.request-timeout:PT60S}")
+    private Duration requestTimeout;
+
+    // Streams hold an upstream connection for their whole length outside aiExecutor, so they are capped separately
+    @Value("${app.ai.max-concurrent-streams:32}")
+    private int maxConcurrentStreams;
+
+    private Semaphore streamPermits;
+
+    // Bump when buildJobMatchPrompt changes so cached analyses are not reused across prompts
+    private static final String JOB_MATCH_PROMPT_VERSION = "job-match-v1";
+
+    @PostConstruct
+    void init() {
+        streamPermits = new Semaphore(maxConcurrentStreams);
+    }
 
     /**
-     * Analyze resume against job description using Gemini AI
+     * Analyze resume against job description using Gemini AI.
+     * Results are cached by content, so repeated analyses skip the API call.
      */
-    public Map<String, Object> analyzeJobMatch(String resumeText, String jobDescription) {
+    public CompletableFuture<Map<String, Object>> analyzeJobMatch(String resumeText, String jobDescription) {
+        String cacheKey = aiResultCache.key(JOB_MATCH_PROMPT_VERSION, resumeText, jobDescription);
+        @SuppressWarnings("unchecked")
+        Optional<Map<String, Object>> cached = aiResultCache.get(cacheKey, Map.class).map(map -> (Map<String, Object>) map);
+        if (cached.isPresent()) {
+            return CompletableFuture.completedFuture(cached.get());
+        }
+
         String prompt = buildJobMatchPrompt(resumeText, jobDescription);
         
-        try {
-            String response = callGeminiAPI(prompt);
-            return parseGeminiResponse(response);
-        } catch (Exception e) {
-            log.error("Error analyzing job match with Gemini AI", e);
-            return createDefaultAnalysis();
-        }
+        return callGeminiAPI(prompt)
+                .thenApply(response -> {
+                    Map<String, Object> analysis = Collections.unmodifiableMap(parseGeminiResponse(response));
+                    aiResultCache.put(cacheKey, analysis);
+                    return analysis;
+                })
+                .exceptionally(e -> {
+                    log.error("Error analyzing job match with Gemini AI", e);
+                    return createDefaultAnalysis();
+                });
     }
 
     /**
      * Generate tailored resume points using Gemini AI
      */
-    public List<String> generateTailoredPoints(String resumeText, String jobDescription, List<String> keywords) {
+    public CompletableFuture<List<String>> generateTailoredPoints(String resumeText, String jobDescription, List<String> keywords) {
         String prompt = buildTailoredPointsPrompt(resumeText, jobDescription, keywords);
         
+        return callGeminiAPI(prompt)
+                .thenApply(this::parseTailoredPoints)
+                .exceptionally(e -> {
+                    log.error("Error generating tailored points with Gemini AI", e);
+                    return createDefaultPoints();
+                });
+    }
+
+    /**
+     * Generate LinkedIn profile using OpenAI. The OpenAI client blocks, so the call
+     * runs on the bounded AI executor; a full executor fails the future with
+     * {@link RejectedExecutionException}. A failed generation fails the future;
+     * callers that show a placeholder use {@link #fallbackProfile(Throwable)}.
+     */
+    public CompletableFuture<Profile> generateProfile(String resumeText) {
+        ChatCompletionRequest request = buildProfileRequest(resumeText);
+
         try {
-            String response = callGeminiAPI(prompt);
-            return parseTailoredPoints(response);
-        } catch (Exception e) {
-            log.error("Error generating tailored points with Gemini AI", e);
-            return createDefaultPoints();
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    String response = openAiService.createChatCompletion(request)
+                            .getChoices().get(0).getMessage().getContent();
+
+                    return parseProfileResponse(response);
+                } catch (Exception e) {
+                    log.error("Error generating profile with OpenAI", e);
+                    throw new CompletionException(e);
+                }
+            }, aiExecutor);
+        } catch (RejectedExecutionException e) {
+            log.warn("AI executor saturated, rejecting profile generation");
+            return CompletableFuture.failedFuture(e);
         }
     }
 
     /**
-     * Generate LinkedIn profile using OpenAI
+     * Stream a LinkedIn profile from OpenAI. Raw token chunks go to onToken as they
+     * arrive, and each top-level profile section goes to onSection once complete.
+     * Cancelling the returned future stops the upstream stream. Fails at once with
+     * RejectedExecutionException when the stream limit is reached, and fails when
+     * the stream ends without a complete profile.
      */
-    public Profile generateProfile(String resumeText) {
-        List<ChatMessage> messages = new ArrayList<>();
-        messages.add(new ChatMessage("system", "You are a professional resume analyzer that creates detailed LinkedIn profiles."));
-        messages.add(new ChatMessage("user", buildProfilePrompt(resumeText)));
+    public CompletableFuture<Profile> streamProfile(
+            String resumeText, Consumer<String> onToken, BiConsumer<String, JsonNode> onSection) {
+        return withStreamPermit(() -> openProfileStream(resumeText, onToken, onSection));
+    }
 
+    private CompletableFuture<Profile> openProfileStream(
+            String resumeText, Consumer<String> onToken, BiConsumer<String, JsonNode> onSection) {
+        ProfileStreamParser parser;
         try {
-            ChatCompletionRequest request = ChatCompletionRequest.builder()
-                    .model("gpt-3.5-turbo")
-                    .messages(messages)
-                    .temperature(0.7)
-                    .maxTokens(3000)
-                    .build();
-
-            String response = openAiService.createChatCompletion(request)
-                    .getChoices().get(0).getMessage().getContent();
-
-            return parseProfileResponse(response);
-        } catch (Exception e) {
-            log.error("Error generating profile with OpenAI", e);
-            return createDefaultProfile();
+            parser = new ProfileStreamParser(objectMapper, onSection);
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
         }
+
+        CompletableFuture<Profile> result = new CompletableFuture<>();
+        Disposable subscription = openAiService.streamChatCompletion(buildProfileRequest(resumeText)).subscribe(
+                chunk -> {
+                    if (chunk.getChoices().isEmpty() || chunk.getChoices().get(0).getMessage() == null) {
+                        return;
+                    }
+                    String token = chunk.getChoices().get(0).getMessage().getContent();
+                    if (token != null && !token.isEmpty()) {
+                        onToken.accept(token);
+                        parser.feed(token);
+                    }
+                },
+                error -> {
+                    log.error("Error streaming profile from OpenAI", error);
+                    result.completeExceptionally(error);
+                },
+                () -> {
+                    if (!parser.isComplete()) {
+                        log.error("OpenAI profile stream ended before the profile was complete");
+                        result.completeExceptionally(new IOException("Profile generation ended early"));
+                        return;
+                    }
+                    try {
+                        result.complete(objectMapper.treeToValue(parser.profile(), Profile.class));
+                    } catch (JsonProcessingException e) {
+                        log.error("Error mapping streamed profile", e);
+                        result.completeExceptionally(e);
+                    }
+                });
+        result.whenComplete((profile, error) -> subscription.dispose());
+        return result;
     }
 
     /**
-     * Call Gemini AI API
+     * Stream tailored resume points from Gemini AI. Text chunks go to onToken as they
+     * arrive; the future completes with the full text. Cancelling it aborts the request.
+     * Fails at once with RejectedExecutionException when the stream limit is reached.
      */
-    private String callGeminiAPI(String prompt) {
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-        
+    public CompletableFuture<String> streamTailoredPoints(
+            String resumeText, String jobDescription, List<String> keywords, Consumer<String> onToken) {
+        return withStreamPermit(() ->
+                streamGeminiAPI(buildTailoredPointsPrompt(resumeText, jobDescription, keywords), onToken));
+    }
+
+    /**
+     * Open a stream if a permit is free, holding the permit until the stream completes or is cancelled
+     */
+    private <T> CompletableFuture<T> withStreamPermit(Supplier<CompletableFuture<T>> open) {
+        if (!streamPermits.tryAcquire()) {
+            log.warn("{} AI streams open, rejecting stream", maxConcurrentStreams);
+            return CompletableFuture.failedFuture(new RejectedExecutionException("Too many concurrent AI streams"));
+        }
+
+        CompletableFuture<T> stream;
+        try {
+            stream = open.get();
+        } catch (RuntimeException e) {
+            streamPermits.release();
+            throw e;
+        }
+        stream.whenComplete((result, error) -> streamPermits.release());
+        return stream;
+    }
+
+    /**
+     * Call Gemini AI API without blocking the calling thread
+     */
+    private CompletableFuture<String> callGeminiAPI(String prompt) {
+        HttpRequest request;
+        try {
+            request = buildGeminiRequest(geminiApiUrl + "?key=" + googleApiKey, prompt);
+        } catch (JsonProcessingException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        return geminiHttpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .thenApply(response -> {
+                    if (response.statusCode() / 100 != 2) {
+                        throw new CompletionException(new IOException(
+                                "Gemini API returned status " + response.statusCode()));
+                    }
+                    return response.body();
+                });
+    }
+
+    /**
+     * Call the Gemini streaming endpoint and forward text from each server-sent event
+     */
+    private CompletableFuture<String> streamGeminiAPI(String prompt, Consumer<String> onToken) {
+        String url = geminiApiUrl.replace(":generateContent", ":streamGenerateContent")
+                + "?alt=sse&key=" + googleApiKey;
+        HttpRequest request;
+        try {
+            request = buildGeminiRequest(url, prompt);
+        } catch (JsonProcessingException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        StringBuilder text = new StringBuilder();
+        Flow.Subscriber<String> events = new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(String line) {
+                if (!line.startsWith("data:")) {
+                    return;
+                }
+                String token = extractGeminiText(line.substring("data:".length()).trim());
+                if (!token.isEmpty()) {
+                    text.append(token);
+                    onToken.accept(token);
+                }
+            }
+
+            @Override
+            public void onError(Throwable error) {
+                // Surfaced through the response future
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        };
+
+        CompletableFuture<HttpResponse<Void>> exchange = geminiHttpClient.sendAsync(request, info ->
+                info.statusCode() / 100 == 2
+                        ? HttpResponse.BodySubscribers.fromLineSubscriber(events)
+                        : HttpResponse.BodySubscribers.<Void>replacing(null));
+        CompletableFuture<String> result = exchange.thenApply(response -> {
+            if (response.statusCode() / 100 != 2) {
+                throw new CompletionException(new IOException(
+                        "Gemini API returned status " + response.statusCode()));
+            }
+            return text.toString();
+        });
+        result.whenComplete((body, error) -> exchange.cancel(true));
+        return result;
+    }
+
+    private HttpRequest buildGeminiRequest(String url, String prompt) throws JsonProcessingException {
         Map<String, Object> requestBody = new HashMap<>();
         Map<String, Object> contents = new HashMap<>();
         contents.put("text", prompt);
         requestBody.put("contents", List.of(contents));
-        
-        String url = GEMINI_API_URL + "?key=" + googleApiKey;
-        
-        HttpEntity<Map<String, Object>> request = new HttpEntity<>(requestBody, headers);
-        return restTemplate.postForObject(url, request, String.class);
+
+        return HttpRequest.newBuilder(URI.create(url))
+                .timeout(requestTimeout)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(requestBody)))
+                .build();
+    }
+
+    /**
+     * Concatenate the text parts of one streamed Gemini response chunk
+     */
+    private String extractGeminiText(String event) {
+        try {
+            StringBuilder text = new StringBuilder();
+            for (JsonNode part : objectMapper.readTree(event)
+                    .path("candidates").path(0).path("content").path("parts")) {
+                text.append(part.path("text").asText(""));
+            }
+            return text.toString();
+        } catch (JsonProcessingException e) {
+            log.debug("Skipping unparseable Gemini stream event", e);
+            return "";
+        }
     }
 
     /**
      * Parse Gemini response for job match analysis
      */
-    private Map<String, Object> parseGeminiResponse(String response) throws JsonProcessingException {
-        return objectMapper.readValue(response, Map.class);
+    private Map<String, Object> parseGeminiResponse(String response) {
+        try {
+            return objectMapper.readValue(response, Map.class);
+        } catch (JsonProcessingException e) {
+            throw new CompletionException(e);
+        }
     }
 
     /**
      * Parse Gemini response for tailored points
      */
-    private List<String> parseTailoredPoints(String response) throws JsonProcessingException {
-        Map<String, Object> parsed = objectMapper.readValue(response, Map.class);
-        return (List<String>) parsed.get("tailored_points");
+    private List<String> parseTailoredPoints(String response) {
+        try {
+            Map<String, Object> parsed = objectMapper.readValue(response, Map.class);
+            return (List<String>) parsed.get("tailored_points");
+        } catch (JsonProcessingException e) {
+            throw new CompletionException(e);
+        }
     }
 
     /**
@@ -128,6 +366,19 @@ public class AIService {
         return objectMapper.readValue(response, Profile.class);
     }
 
+    private ChatCompletionRequest buildProfileRequest(String resumeText) {
+        List<ChatMessage> messages = new ArrayList<>();
+        messages.add(new ChatMessage("system", "You are a professional resume analyzer that creates detailed LinkedIn profiles."));
+        messages.add(new ChatMessage("user", buildProfilePrompt(resumeText)));
+
+        return ChatCompletionRequest.builder()
+                .model("gpt-3.5-turbo")
+                .messages(messages)
+                .temperature(0.7)
+                .maxTokens(3000)
+                .build();
+    }
+
     /**
      * Build prompts
      */
@@ -175,6 +426,19 @@ public class AIService {
             """, resumeText);
     }
 
+    /**
+     * Placeholder profile shown in place of a failed generation. It must never be
+     * stored, or the failure would be served until the resume changes. A rejection
+     * is rethrown so callers can still answer 503.
+     */
+    public Profile fallbackProfile(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof RejectedExecutionException rejected) {
+            throw new CompletionException(rejected);
+        }
+        return createDefaultProfile();
+    }
+
     /**
      * Default responses for error cases
      */
@@ -0,0 +1,205 @@
+package com.linkedinjobassistant.service;
+
+import com.linkedinjobassistant.cache.RedisValueCodec;
+import com.linkedinjobassistant.model.AnalysisTask;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Runs slow resume/AI work off the request path. Submissions return a task id
+ * straight away; state lives in Redis so any node can answer status, and
+ * completions are announced over pub/sub to whichever node holds the SSE stream.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AnalysisTaskService {
+
+    @Qualifier("redisBinaryTemplate")
+    private final RedisTemplate<String, byte[]> redisBinaryTemplate;
+    @Qualifier("redisTemplate")
+    private final RedisTemplate<String, String> redisTemplate;
+    private final RedisValueCodec redisValueCodec;
+    @Qualifier("redisListenerContainer")
+    private final RedisMessageListenerContainer redisListenerContainer;
+    @Qualifier("analysisTaskExecutor")
+    private final ThreadPoolExecutor analysisTaskExecutor;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.tasks.ttl:P1D}")
+    private Duration taskTtl;
+
+    @Value("${app.tasks.sse-timeout:PT5M}")
+    private Duration sseTimeout;
+
+    private static final String COMPLETED_CHANNEL = "tasks:completed";
+
+    // SSE streams held by this node, by task id
+    private final Map<String, Set<SseEmitter>> emitters = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void subscribeToCompletions() {
+        redisListenerContainer.addMessageListener(
+                (message, pattern) -> onCompleted(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(COMPLETED_CHANNEL));
+        meterRegistry.gauge("analysis.tasks.queued", analysisTaskExecutor, executor -> executor.getQueue().size());
+        meterRegistry.gauge("analysis.tasks.active", analysisTaskExecutor, ThreadPoolExecutor::getActiveCount);
+    }
+
+    /**
+     * Queue work for a user and return the new task.
+     * Throws {@link RejectedExecutionException} when the worker queue is full.
+     */
+    public AnalysisTask submit(String type, String userId, Callable<Object> work) throws IOException {
+        Instant now = Instant.now();
+        AnalysisTask task = AnalysisTask.builder()
+                .id(UUID.randomUUID().toString())
+                .type(type)
+                .userId(userId)
+                .status(AnalysisTask.Status.QUEUED)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+        save(task);
+
+        try {
+            analysisTaskExecutor.execute(() -> run(task, work));
+        } catch (RejectedExecutionException e) {
+            redisBinaryTemplate.delete(getTaskKey(task.getId()));
+            meterRegistry.counter("analysis.tasks", "outcome", "rejected").increment();
+            throw e;
+        }
+        return task;
+    }
+
+    /**
+     * Get a task owned by the user
+     */
+    public Optional<AnalysisTask> getTask(String id, String userId) {
+        return readTask(id).filter(task -> task.getUserId().equals(userId));
+    }
+
+    /**
+     * Open an SSE stream that sends the task once it finishes.
+     * The current state is sent immediately, so late subscribers do not wait.
+     */
+    public SseEmitter subscribe(AnalysisTask task) {
+        SseEmitter emitter = new SseEmitter(sseTimeout.toMillis());
+        Set<SseEmitter> streams = emitters.computeIfAbsent(task.getId(), id -> ConcurrentHashMap.newKeySet());
+        streams.add(emitter);
+        emitter.onCompletion(() -> removeEmitter(task.getId(), emitter));
+        emitter.onTimeout(() -> removeEmitter(task.getId(), emitter));
+        emitter.onError(e -> removeEmitter(task.getId(), emitter));
+
+        // Re-read after registering, so a completion published in between is not missed
+        AnalysisTask current = readTask(task.getId()).orElse(task);
+        send(emitter, current);
+        if (current.getStatus().isTerminal()) {
+            removeEmitter(task.getId(), emitter);
+            emitter.complete();
+        }
+        return emitter;
+    }
+
+    private void run(AnalysisTask task, Callable<Object> work) {
+        try {
+            update(task, AnalysisTask.Status.RUNNING, null, null);
+            Object result = work.call();
+            update(task, AnalysisTask.Status.SUCCEEDED, result, null);
+            meterRegistry.counter("analysis.tasks", "outcome", "succeeded").increment();
+        } catch (Exception e) {
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            log.error("Analysis task {} ({}) failed", task.getId(), task.getType(), cause);
+            try {
+                update(task, AnalysisTask.Status.FAILED, null, cause.getMessage());
+            } catch (Exception saveError) {
+                log.error("Error recording failure of task {}", task.getId(), saveError);
+            }
+            meterRegistry.counter("analysis.tasks", "outcome", "failed").increment();
+        } finally {
+            redisTemplate.convertAndSend(COMPLETED_CHANNEL, task.getId());
+        }
+    }
+
+    private void update(AnalysisTask task, AnalysisTask.Status status, Object result, String error) throws IOException {
+        task.setStatus(status);
+        task.setResult(result);
+        task.setError(error);
+        task.setUpdatedAt(Instant.now());
+        save(task);
+    }
+
+    private void onCompleted(String taskId) {
+        Set<SseEmitter> streams = emitters.remove(taskId);
+        if (streams == null) {
+            return;
+        }
+        readTask(taskId).ifPresent(task -> streams.forEach(emitter -> {
+            send(emitter, task);
+            emitter.complete();
+        }));
+    }
+
+    private void send(SseEmitter emitter, AnalysisTask task) {
+        try {
+            emitter.send(SseEmitter.event()
+                    .id(task.getId())
+                    .name(task.getStatus().name().toLowerCase())
+                    .data(task));
+        } catch (IOException e) {
+            log.debug("SSE client for task {} went away", task.getId());
+            emitter.completeWithError(e);
+        }
+    }
+
+    private void removeEmitter(String taskId, SseEmitter emitter) {
+        emitters.computeIfPresent(taskId, (id, streams) -> {
+            streams.remove(emitter);
+            return streams.isEmpty() ? null : streams;
+        });
+    }
+
+    private void save(AnalysisTask task) throws IOException {
+        redisBinaryTemplate.opsForValue().set(getTaskKey(task.getId()), redisValueCodec.encode(task), taskTtl);
+    }
+
+    private Optional<AnalysisTask> readTask(String id) {
+        byte[] cached = redisBinaryTemplate.opsForValue().get(getTaskKey(id));
+        if (cached == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(redisValueCodec.decode(cached, AnalysisTask.class));
+        } catch (IOException e) {
+            log.error("Error decoding task {}", id, e);
+            return Optional.empty();
+        }
+    }
+
+    private String getTaskKey(String id) {
+        return String.format("task:%s", id);
+    }
+}
@@ -0,0 +1,380 @@
+package com.linkedinjobassistant.service;
+
+import com.linkedinjobassistant.model.Job;
+import com.linkedinjobassistant.model.JobFilter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+
+/**
+ * Dictionary-encoded facet index over the categorical job fields. Each field
+ * value is assigned a code at ingest; every document stores one code per field,
+ * and every code keeps an ascending list of the documents that carry it.
+ * A filter ORs the lists of the selected values into a bitmap per field and
+ * ANDs the fields together; facet counts are read off the code columns.
+ */
+@Component
+@Slf4j
+public class JobFacetIndex extends JobWindowIndex {
+
+    // Facet values returned per field, most frequent first
+    private static final int MAX_FACET_VALUES = 100;
+
+    private static final Comparator<Job> NEWEST_FIRST = Comparator.comparing(
+            Job::getListedAt, Comparator.nullsLast(Comparator.<Instant>reverseOrder()));
+
+    /**
+     * Categorical job fields that can be filtered and counted
+     */
+    public enum Facet {
+        LOCATION("location", Job::getLocation, JobFilter::getLocation, true),
+        EMPLOYMENT_TYPE("employmentType", Job::getEmploymentType, JobFilter::getEmploymentType, false),
+        EXPERIENCE_LEVEL("experienceLevel", Job::getExperienceLevel, JobFilter::getExperienceLevel, false),
+        SOURCE("source", Job::getSource, JobFilter::getSource, false),
+        COMPANY_NAME("companyName", Job::getCompanyName, JobFilter::getCompanyName, false);
+
+        private final String fieldName;
+        private final Function<Job, String> value;
+        private final Function<JobFilter, List<String>> selection;
+        // Location filters match any value containing the selection, as they always have
+        private final boolean substring;
+
+        Facet(String fieldName, Function<Job, String> value, Function<JobFilter, List<String>> selection,
+              boolean substring) {
+            this.fieldName = fieldName;
+            this.value = value;
+            this.selection = selection;
+            this.substring = substring;
+        }
+
+        public String fieldName() {
+            return fieldName;
+        }
+    }
+
+    /**
+     * Matching jobs, newest first, with value counts per field over the matches
+     */
+    public record FilterResult(List<Job> jobs, Map<String, Map<String, Integer>> facets) {
+    }
+
+    private final List<Job> documents = new ArrayList<>();
+    private final Map<String, Integer> documentsByJobId = new HashMap<>();
+    private final BitSet deleted = new BitSet();
+    // Documents newest first and each document's position in that order, recomputed at ingest
+    private int[] newestFirst = new int[0];
+    private int[] rankOfDocument = new int[0];
+    private final Map<Facet, Dictionary> dictionaries = new EnumMap<>(Facet.class);
+
+    public JobFacetIndex() {
+        for (Facet facet : Facet.values()) {
+            dictionaries.put(facet, new Dictionary());
+        }
+    }
+
+    @Override
+    protected void reset(String windowKey, Collection<Job> jobs) {
+        clear();
+        jobs.forEach(this::addDocument);
+        sortDocuments();
+        log.debug("Rebuilt facet index for {} with {} jobs", windowKey, jobs.size());
+    }
+
+    @Override
+    protected void upsert(Collection<Job> jobs) {
+        jobs.forEach(this::addDocument);
+        if (deleted.cardinality() > documents.size() / 2) {
+            compact();
+        }
+        sortDocuments();
+    }
+
+    /**
+     * Find the jobs matching a filter and count field values over them, in the
+     * snapshot's window or a newer one
+     */
+    FilterResult filter(JobSnapshot snapshot, JobFilter filter) {
+        return read(snapshot, () -> filter(filter));
+    }
+
+    private FilterResult filter(JobFilter filter) {
+        BitSet matches = new BitSet(documents.size());
+        matches.set(0, documents.size());
+        matches.andNot(deleted);
+
+        for (Facet facet : Facet.values()) {
+            List<String> selected = facet.selection.apply(filter);
+            if (selected == null || selected.stream().allMatch(value -> normalize(value) == null)) {
+                continue;
+            }
+            matches.and(dictionaries.get(facet).select(selected, facet.substring, documents.size()));
+        }
+
+        Map<String, Map<String, Integer>> facets = new LinkedHashMap<>();
+        for (Facet facet : Facet.values()) {
+            facets.put(facet.fieldName(), dictionaries.get(facet).count(matches));
+        }
+
+        return new FilterResult(collectNewestFirst(matches), facets);
+    }
+
+    /**
+     * Per-job test with the same semantics as {@link #filter}, for callers that
+     * walk a job list themselves rather than collect every match at once
+     */
+    public static Predicate<Job> matcher(JobFilter filter) {
+        Predicate<Job> matcher = job -> true;
+        for (Facet facet : Facet.values()) {
+            List<String> selected = facet.selection.apply(filter);
+            if (selected == null) {
+                continue;
+            }
+            List<String> normalized = selected.stream()
+                    .map(JobFacetIndex::normalize)
+                    .filter(value -> value != null)
+                    .distinct()
+                    .toList();
+            if (normalized.isEmpty()) {
+                continue;
+            }
+            matcher = matcher.and(job -> {
+                String value = normalize(facet.value.apply(job));
+                if (value == null) {
+                    return false;
+                }
+                return facet.substring ? normalized.stream().anyMatch(value::contains) : normalized.contains(value);
+            });
+        }
+        return matcher;
+    }
+
+    private void addDocument(Job job) {
+        int doc = documents.size();
+        documents.add(job);
+
+        if (job.getId() != null) {
+            Integer previous = documentsByJobId.put(job.getId(), doc);
+            if (previous != null) {
+                deleted.set(previous);
+            }
+        }
+
+        dictionaries.forEach((facet, dictionary) -> dictionary.add(doc, facet.value.apply(job)));
+    }
+
+    /**
+     * Matching jobs in newest-first order: few matches are ordered by sorting
+     * their ranks, many by walking the precomputed order
+     */
+    private List<Job> collectNewestFirst(BitSet matches) {
+        int count = matches.cardinality();
+        List<Job> jobs = new ArrayList<>(count);
+        if (count < newestFirst.length / 16) {
+            int[] ranks = new int[count];
+            int i = 0;
+            for (int doc = matches.nextSetBit(0); doc >= 0; doc = matches.nextSetBit(doc + 1)) {
+                ranks[i++] = rankOfDocument[doc];
+            }
+            Arrays.sort(ranks);
+            for (int rank : ranks) {
+                jobs.add(documents.get(newestFirst[rank]));
+            }
+        } else {
+            for (int doc : newestFirst) {
+                if (matches.get(doc)) {
+                    jobs.add(documents.get(doc));
+                }
+            }
+        }
+        return jobs;
+    }
+
+    private void sortDocuments() {
+        newestFirst = IntStream.range(0, documents.size())
+                .filter(doc -> !deleted.get(doc))
+                .boxed()
+                .sorted(Comparator.comparing(documents::get, NEWEST_FIRST))
+                .mapToInt(Integer::intValue)
+                .toArray();
+        rankOfDocument = new int[documents.size()];
+        for (int rank = 0; rank < newestFirst.length; rank++) {
+            rankOfDocument[newestFirst[rank]] = rank;
+        }
+        dictionaries.values().forEach(dictionary -> dictionary.seal(documents.size()));
+    }
+
+    private void compact() {
+        List<Job> live = new ArrayList<>(documents.size() - deleted.cardinality());
+        for (int doc = 0; doc < documents.size(); doc++) {
+            if (!deleted.get(doc)) {
+                live.add(documents.get(doc));
+            }
+        }
+        clear();
+        live.forEach(this::addDocument);
+    }
+
+    private void clear() {
+        documents.clear();
+        documentsByJobId.clear();
+        deleted.clear();
+        dictionaries.replaceAll((facet, dictionary) -> new Dictionary());
+    }
+
+    /**
+     * Case- and whitespace-insensitive form used as the dictionary key; null for blank values
+     */
+    private static String normalize(String value) {
+        if (value == null) {
+            return null;
+        }
+        String normalized = value.strip().toLowerCase(Locale.ROOT);
+        return normalized.isEmpty() ? null : normalized;
+    }
+
+    /**
+     * Value dictionary of one field: code per distinct value, the code column
+     * by document and the ascending document list of each code
+     */
+    private static final class Dictionary {
+        private final Map<String, Integer> codes = new HashMap<>();
+        private final List<String> normalizedValues = new ArrayList<>();
+        // First spelling seen for each value, used as its facet label
+        private final List<String> labels = new ArrayList<>();
+        private final List<Postings> postings = new ArrayList<>();
+        private int[] column = new int[16];
+
+        void add(int doc, String value) {
+            if (doc == column.length) {
+                column = Arrays.copyOf(column, doc * 2);
+            }
+            String normalized = normalize(value);
+            if (normalized == null) {
+                column[doc] = -1;
+                return;
+            }
+            int code = codes.computeIfAbsent(normalized, v -> {
+                normalizedValues.add(v);
+                labels.add(value.strip());
+                postings.add(new Postings());
+                return normalizedValues.size() - 1;
+            });
+            column[doc] = code;
+            postings.get(code).add(doc);
+        }
+
+        /**
+         * Give frequent values a dense bitmap; called after each ingest
+         */
+        void seal(int documentCount) {
+            postings.forEach(list -> list.seal(documentCount));
+        }
+
+        /**
+         * Documents carrying any of the selected values
+         */
+        BitSet select(List<String> selected, boolean substring, int documentCount) {
+            BitSet bits = new BitSet(documentCount);
+            for (String value : selected) {
+                String normalized = normalize(value);
+                if (normalized == null) {
+                    continue;
+                }
+                if (substring) {
+                    for (int code = 0; code < normalizedValues.size(); code++) {
+                        if (normalizedValues.get(code).contains(normalized)) {
+                            postings.get(code).setAll(bits);
+                        }
+                    }
+                } else {
+                    Integer code = codes.get(normalized);
+                    if (code != null) {
+                        postings.get(code).setAll(bits);
+                    }
+                }
+            }
+            return bits;
+        }
+
+        /**
+         * Value counts over the matching documents, most frequent first
+         */
+        Map<String, Integer> count(BitSet matches) {
+            int[] counts = new int[labels.size()];
+            for (int doc = matches.nextSetBit(0); doc >= 0; doc = matches.nextSetBit(doc + 1)) {
+                int code = column[doc];
+                if (code >= 0) {
+                    counts[code]++;
+                }
+            }
+
+            // Count in the high bits, code in the low bits, so a primitive sort ranks the values
+            long[] ranked = new long[counts.length];
+            int present = 0;
+            for (int code = 0; code < counts.length; code++) {
+                if (counts[code] > 0) {
+                    ranked[present++] = (long) counts[code] << 32 | code;
+                }
+            }
+            Arrays.sort(ranked, 0, present);
+
+            Map<String, Integer> facet = new LinkedHashMap<>();
+            for (int i = present - 1; i >= 0 && facet.size() < MAX_FACET_VALUES; i--) {
+                facet.put(labels.get((int) ranked[i]), (int) (ranked[i] >>> 32));
+            }
+            return facet;
+        }
+    }
+
+    /**
+     * Growable list of ascending doc ids. Like a Roaring container, a value
+     * present in at least 1/32 of the documents also keeps a dense bitmap,
+     * which is smaller than the id list at that point and ORs word by word.
+     */
+    private static final class Postings {
+        private int[] docs = new int[4];
+        private int size;
+        private BitSet dense;
+
+        void add(int doc) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+            }
+            docs[size++] = doc;
+            dense = null;
+        }
+
+        void seal(int documentCount) {
+            if (dense == null && (long) size * 32 >= documentCount) {
+                BitSet bits = new BitSet(documentCount);
+                setAll(bits);
+                dense = bits;
+            }
+        }
+
+        void setAll(BitSet bits) {
+            if (dense != null) {
+                bits.or(dense);
+                return;
+            }
+            for (int i = 0; i < size; i++) {
+                bits.set(docs[i]);
+            }
+        }
+    }
+}
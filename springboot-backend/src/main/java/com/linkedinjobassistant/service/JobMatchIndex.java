@@ -0,0 +1,324 @@
+package com.linkedinjobassistant.service;
+
+import com.linkedinjobassistant.model.Job;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+/**
+ * Local resume-to-job matching. Each job is turned into a sparse term
+ * frequency vector when its batch is ingested; a resume is scored against
+ * every job in the window as the TF-IDF cosine similarity, in parallel.
+ * IDF is applied at scoring time so vectors stay valid as the window grows;
+ * the IDF table itself is recomputed once each time the window moves.
+ */
+@Component
+@Slf4j
+public class JobMatchIndex extends JobWindowIndex {
+
+    private static final float TITLE_WEIGHT = 3.0f;
+    private static final float SKILL_WEIGHT = 2.0f;
+    private static final float DESCRIPTION_WEIGHT = 1.0f;
+
+    // Total order over annotated jobs (ties broken by id) so a job's score can serve as a page cursor
+    static final Comparator<Job> BEST_MATCH_FIRST = Comparator.comparing(
+            Job::getMatchScore, Comparator.nullsLast(Comparator.<Double>reverseOrder()))
+            .thenComparing(Job::getId, Comparator.nullsLast(Comparator.<String>naturalOrder()));
+
+    private final Map<String, Integer> termIds = new HashMap<>();
+    private int[] documentFrequencies = new int[1024];
+    private final Map<String, TermVector> vectorsByJobId = new HashMap<>();
+    // Inverse document frequency by term id for the window the index holds
+    private float[] idf = new float[0];
+
+    @Override
+    protected void reset(String windowKey, Collection<Job> jobs) {
+        termIds.clear();
+        documentFrequencies = new int[1024];
+        vectorsByJobId.clear();
+        jobs.forEach(this::addJob);
+        idf = inverseDocumentFrequencies();
+        log.debug("Rebuilt match index for {} with {} jobs and {} terms", windowKey, jobs.size(), termIds.size());
+    }
+
+    @Override
+    protected void upsert(Collection<Job> jobs) {
+        jobs.forEach(this::addJob);
+        idf = inverseDocumentFrequencies();
+    }
+
+    /**
+     * Score a resume against the given jobs of a snapshot, with the index at
+     * that window or a newer one; scores line up with the job list and lie
+     * between 0 and 1. Jobs the index has not seen score 0.
+     */
+    float[] score(JobSnapshot snapshot, String resumeText, List<Job> jobs) {
+        return read(snapshot, () -> score(resumeText, jobs));
+    }
+
+    private float[] score(String resumeText, List<Job> jobs) {
+        QueryVector query = queryVector(resumeText);
+        float[] scores = new float[jobs.size()];
+        if (query == null) {
+            return scores;
+        }
+        IntStream.range(0, jobs.size()).parallel().forEach(i -> {
+            TermVector vector = vectorsByJobId.get(jobs.get(i).getId());
+            if (vector != null) {
+                scores[i] = vector.cosine(query, idf);
+            }
+        });
+        return scores;
+    }
+
+    /**
+     * Score a resume against the given jobs, best match first
+     */
+    Ranking rank(JobSnapshot snapshot, String resumeText, List<Job> jobs) {
+        float[] scores = score(snapshot, resumeText, jobs);
+        // Same order as BEST_MATCH_FIRST on the annotated copies: rounded score, then id
+        Comparator<Integer> bestFirst = Comparator.comparingDouble((Integer i) -> -roundedScore(scores[i]))
+                .thenComparing(i -> jobs.get(i).getId(), Comparator.nullsLast(Comparator.<String>naturalOrder()));
+        int[] order = IntStream.range(0, jobs.size()).boxed().sorted(bestFirst).mapToInt(Integer::intValue).toArray();
+        return new Ranking(jobs, order, scores, resumeTerms(resumeText));
+    }
+
+    /**
+     * Score a resume against the given jobs, keeping the order they are in
+     */
+    Ranking rankInOrder(JobSnapshot snapshot, String resumeText, List<Job> jobs) {
+        return new Ranking(jobs, IntStream.range(0, jobs.size()).toArray(), score(snapshot, resumeText, jobs),
+                resumeTerms(resumeText));
+    }
+
+    /**
+     * Score a resume against the given jobs and return annotated copies of the
+     * best k, best match first. A bounded min-heap keeps only k candidates,
+     * so the window is never sorted as a whole.
+     */
+    List<Job> topK(JobSnapshot snapshot, String resumeText, List<Job> jobs, int k) {
+        float[] scores = score(snapshot, resumeText, jobs);
+        // Lowest score at the head; among equal scores the later job is evicted first
+        PriorityQueue<Integer> heap = new PriorityQueue<>(k + 1,
+                Comparator.comparingDouble((Integer i) -> scores[i]).thenComparing(Comparator.reverseOrder()));
+        for (int i = 0; i < scores.length; i++) {
+            if (heap.size() < k) {
+                heap.add(i);
+            } else if (scores[i] > scores[heap.peek()]) {
+                heap.poll();
+                heap.add(i);
+            }
+        }
+
+        Job[] best = new Job[heap.size()];
+        Set<String> resumeTerms = resumeTerms(resumeText);
+        for (int slot = best.length - 1; slot >= 0; slot--) {
+            int i = heap.poll();
+            best[slot] = annotate(jobs.get(i), scores[i], resumeTerms);
+        }
+        return List.of(best);
+    }
+
+    /**
+     * Distinct terms of a resume, for keyword annotation
+     */
+    public Set<String> resumeTerms(String resumeText) {
+        return new HashSet<>(JobTextTokenizer.tokenize(resumeText));
+    }
+
+    /**
+     * Copy a job with its match score (0-100) and the skills the resume
+     * does and does not mention. Cached jobs are shared, so they are never modified.
+     */
+    public Job annotate(Job job, float score, Set<String> resumeTerms) {
+        List<String> matched = new ArrayList<>();
+        List<String> missing = new ArrayList<>();
+        if (job.getSkills() != null) {
+            for (String skill : job.getSkills()) {
+                List<String> terms = JobTextTokenizer.tokenize(skill);
+                if (terms.isEmpty()) {
+                    continue;
+                }
+                (resumeTerms.containsAll(terms) ? matched : missing).add(skill);
+            }
+        }
+
+        Job copy = job.toBuilder().build();
+        copy.updateMatchAnalysis(roundedScore(score), matched, missing);
+        return copy;
+    }
+
+    /**
+     * Match score as shown to users: a percentage with one decimal
+     */
+    private static double roundedScore(float score) {
+        return Math.round(score * 1000) / 10.0;
+    }
+
+    /**
+     * Unit-length query weights of the resume's terms, or null when the resume shares no terms with the window
+     */
+    private QueryVector queryVector(String resumeText) {
+        Map<Integer, Integer> counts = new HashMap<>();
+        for (String term : JobTextTokenizer.tokenize(resumeText)) {
+            Integer id = termIds.get(term);
+            if (id != null) {
+                counts.merge(id, 1, Integer::sum);
+            }
+        }
+        if (counts.isEmpty()) {
+            return null;
+        }
+
+        int[] ids = counts.keySet().stream().mapToInt(Integer::intValue).sorted().toArray();
+        float[] weights = new float[ids.length];
+        double norm = 0;
+        for (int i = 0; i < ids.length; i++) {
+            weights[i] = (float) (1 + Math.log(counts.get(ids[i]))) * idf[ids[i]];
+            norm += weights[i] * weights[i];
+        }
+        float scale = (float) (1 / Math.sqrt(norm));
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] *= scale;
+        }
+        return new QueryVector(ids, weights);
+    }
+
+    private float[] inverseDocumentFrequencies() {
+        int documents = Math.max(vectorsByJobId.size(), 1);
+        float[] weights = new float[termIds.size()];
+        for (int id = 0; id < weights.length; id++) {
+            weights[id] = (float) Math.log(1.0 + (double) documents / Math.max(documentFrequencies[id], 1));
+        }
+        return weights;
+    }
+
+    private void addJob(Job job) {
+        if (job.getId() == null) {
+            return;
+        }
+
+        Map<Integer, Float> counts = new HashMap<>();
+        addTerms(counts, job.getTitle(), TITLE_WEIGHT);
+        addTerms(counts, job.getDescription(), DESCRIPTION_WEIGHT);
+        if (job.getSkills() != null) {
+            for (String skill : job.getSkills()) {
+                addTerms(counts, skill, SKILL_WEIGHT);
+            }
+        }
+
+        TermVector vector = new TermVector(counts);
+        TermVector previous = vectorsByJobId.put(job.getId(), vector);
+        if (previous != null) {
+            for (int id : previous.termIds) {
+                documentFrequencies[id]--;
+            }
+        }
+        for (int id : vector.termIds) {
+            documentFrequencies[id]++;
+        }
+    }
+
+    private void addTerms(Map<Integer, Float> counts, String text, float weight) {
+        for (String term : JobTextTokenizer.tokenize(text)) {
+            counts.merge(termId(term), weight, Float::sum);
+        }
+    }
+
+    private int termId(String term) {
+        return termIds.computeIfAbsent(term, t -> {
+            int id = termIds.size();
+            if (id == documentFrequencies.length) {
+                documentFrequencies = Arrays.copyOf(documentFrequencies, id * 2);
+            }
+            return id;
+        });
+    }
+
+    /**
+     * Jobs ranked against one resume, held as positions and raw scores. Annotated
+     * copies are made as elements are read, so a cached ranking costs a few bytes
+     * per job and only the page being returned is ever copied.
+     */
+    public final class Ranking extends AbstractList<Job> implements RandomAccess {
+        private final List<Job> jobs;
+        private final int[] order;
+        private final float[] scores;
+        private final Set<String> resumeTerms;
+
+        private Ranking(List<Job> jobs, int[] order, float[] scores, Set<String> resumeTerms) {
+            this.jobs = jobs;
+            this.order = order;
+            this.scores = scores;
+            this.resumeTerms = resumeTerms;
+        }
+
+        @Override
+        public Job get(int index) {
+            int position = order[index];
+            return annotate(jobs.get(position), scores[position], resumeTerms);
+        }
+
+        @Override
+        public int size() {
+            return order.length;
+        }
+    }
+
+    /**
+     * Sparse vector of sublinear term frequencies, ascending by term id
+     */
+    private static final class TermVector {
+        private final int[] termIds;
+        private final float[] frequencies;
+
+        TermVector(Map<Integer, Float> counts) {
+            termIds = counts.keySet().stream().mapToInt(Integer::intValue).sorted().toArray();
+            frequencies = new float[termIds.length];
+            for (int i = 0; i < termIds.length; i++) {
+                frequencies[i] = (float) (1 + Math.log(counts.get(termIds[i])));
+            }
+        }
+
+        /**
+         * Cosine similarity against a unit-length query, weighting this vector by idf.
+         * Both term id lists are ascending, so the dot product is a merge of the two.
+         */
+        float cosine(QueryVector query, float[] idf) {
+            double dot = 0;
+            double norm = 0;
+            int q = 0;
+            for (int i = 0; i < termIds.length; i++) {
+                int id = termIds[i];
+                double weight = frequencies[i] * idf[id];
+                norm += weight * weight;
+                while (q < query.termIds.length && query.termIds[q] < id) {
+                    q++;
+                }
+                if (q < query.termIds.length && query.termIds[q] == id) {
+                    dot += weight * query.weights[q];
+                }
+            }
+            return norm == 0 ? 0 : (float) (dot / Math.sqrt(norm));
+        }
+    }
+
+    /**
+     * Sparse query weights, ascending by term id
+     */
+    private record QueryVector(int[] termIds, float[] weights) {
+    }
+}
@@ -0,0 +1,209 @@
+package com.linkedinjobassistant.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.linkedinjobassistant.model.Job;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.services.sqs.SqsClient;
+import software.amazon.awssdk.services.sqs.model.DeleteMessageBatchRequest;
+import software.amazon.awssdk.services.sqs.model.DeleteMessageBatchRequestEntry;
+import software.amazon.awssdk.services.sqs.model.DeleteMessageBatchResponse;
+import software.amazon.awssdk.services.sqs.model.Message;
+import software.amazon.awssdk.services.sqs.model.ReceiveMessageRequest;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Drains the job queue with several concurrent receivers until it is empty
+ * or the time budget runs out, acknowledging messages in batches of ten.
+ * Receivers run on the shared drain pool; asking for more receivers than it
+ * has threads queues the extra ones behind the others.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class JobQueueDrainer {
+
+    private final SqsClient sqsClient;
+    private final ObjectMapper objectMapper;
+    @Qualifier("sqsDrainExecutor")
+    private final ExecutorService sqsDrainExecutor;
+
+    // Time source for the budget and the window cutoff
+    private Clock clock = Clock.systemUTC();
+
+    @Value("${aws.sqs.queue-url}")
+    private String queueUrl;
+
+    @Value("${app.jobs.drain.receivers:4}")
+    private int receivers;
+
+    @Value("${app.jobs.drain.time-budget:PT30S}")
+    private Duration timeBudget;
+
+    // Messages older than the job window are acknowledged without caching their jobs
+    @Value("${app.jobs.window-hours:6}")
+    private int windowHours;
+
+    // SQS caps both receive and delete batches at ten messages
+    private static final int MAX_MESSAGES = 10;
+    private static final int MAX_WAIT_SECONDS = 2;
+
+    /**
+     * Outcome of a drain run
+     */
+    public record DrainResult(List<Job> jobs, int received, int deleted, Duration elapsed) {
+
+        public double messagesPerSecond() {
+            long millis = Math.max(elapsed.toMillis(), 1);
+            return received * 1000.0 / millis;
+        }
+    }
+
+    /**
+     * Drain the configured queue with the configured receivers and time budget
+     */
+    public DrainResult drain() {
+        return drain(queueUrl, receivers, timeBudget);
+    }
+
+    /**
+     * Drain a queue until a receive comes back empty or the budget is spent
+     */
+    public DrainResult drain(String queueUrl, int receivers, Duration budget) {
+        Instant started = clock.instant();
+        Instant deadline = started.plus(budget);
+        Instant cutoff = started.minus(Duration.ofHours(windowHours));
+
+        ConcurrentLinkedQueue<Job> jobs = new ConcurrentLinkedQueue<>();
+        AtomicInteger received = new AtomicInteger();
+        AtomicInteger deleted = new AtomicInteger();
+
+        List<CompletableFuture<Void>> workers = new ArrayList<>();
+        for (int i = 0; i < Math.max(receivers, 1); i++) {
+            workers.add(CompletableFuture.runAsync(() -> {
+                try {
+                    while (clock.instant().isBefore(deadline)) {
+                        List<Message> messages = receive(queueUrl, deadline);
+                        if (messages.isEmpty()) {
+                            break;
+                        }
+                        received.addAndGet(messages.size());
+
+                        List<Message> processed = new ArrayList<>(messages.size());
+                        for (Message message : messages) {
+                            if (process(message, cutoff, jobs)) {
+                                processed.add(message);
+                            }
+                        }
+                        deleted.addAndGet(deleteBatch(queueUrl, processed));
+                    }
+                } catch (Exception e) {
+                    log.error("Error receiving from SQS, stopping receiver", e);
+                }
+            }, sqsDrainExecutor));
+        }
+        CompletableFuture.allOf(workers.toArray(CompletableFuture[]::new)).join();
+
+        DrainResult result = new DrainResult(new ArrayList<>(jobs), received.get(), deleted.get(),
+                Duration.between(started, clock.instant()));
+        log.info("Drained {} messages ({} jobs, {} deleted) in {} ms: {} msg/s",
+                result.received(), result.jobs().size(), result.deleted(),
+                result.elapsed().toMillis(), String.format("%.1f", result.messagesPerSecond()));
+        return result;
+    }
+
+    /**
+     * Long-poll for up to ten messages without waiting past the deadline
+     */
+    private List<Message> receive(String queueUrl, Instant deadline) {
+        long remainingSeconds = Duration.between(clock.instant(), deadline).toSeconds();
+        ReceiveMessageRequest receiveRequest = ReceiveMessageRequest.builder()
+                .queueUrl(queueUrl)
+                .maxNumberOfMessages(MAX_MESSAGES)
+                .waitTimeSeconds((int) Math.max(0, Math.min(MAX_WAIT_SECONDS, remainingSeconds)))
+                .build();
+
+        return sqsClient.receiveMessage(receiveRequest).messages();
+    }
+
+    /**
+     * Parse the jobs of one message. Returns whether the message can be deleted;
+     * messages older than the cache window are acknowledged without their jobs,
+     * unparseable ones are left for the queue's redrive policy.
+     */
+    private boolean process(Message message, Instant cutoff, ConcurrentLinkedQueue<Job> jobs) {
+        try {
+            Map<String, Object> messageBody = objectMapper.readValue(message.body(), new TypeReference<Map<String, Object>>() {});
+
+            // Check message timestamp
+            String timestamp = (String) messageBody.get("timestamp");
+            if (timestamp == null) {
+                return false;
+            }
+            if (Instant.parse(timestamp).isAfter(cutoff)) {
+                jobs.addAll(parseJobs(messageBody));
+            } else {
+                log.debug("Dropping stale message {} from {}", message.messageId(), timestamp);
+            }
+            return true;
+        } catch (Exception e) {
+            log.error("Error processing SQS message {}", message.messageId(), e);
+            return false;
+        }
+    }
+
+    /**
+     * Parse jobs from message body
+     */
+    private List<Job> parseJobs(Map<String, Object> messageBody) {
+        Object jobsObj = messageBody.get("jobs");
+        if (jobsObj != null) {
+            return objectMapper.convertValue(jobsObj, new TypeReference<List<Job>>() {});
+        }
+        return new ArrayList<>();
+    }
+
+    /**
+     * Delete up to ten messages with one DeleteMessageBatch call, returning how many succeeded
+     */
+    private int deleteBatch(String queueUrl, List<Message> messages) {
+        if (messages.isEmpty()) {
+            return 0;
+        }
+
+        List<DeleteMessageBatchRequestEntry> entries = new ArrayList<>(messages.size());
+        for (int i = 0; i < messages.size(); i++) {
+            entries.add(DeleteMessageBatchRequestEntry.builder()
+                    .id(String.valueOf(i))
+                    .receiptHandle(messages.get(i).receiptHandle())
+                    .build());
+        }
+
+        try {
+            DeleteMessageBatchResponse response = sqsClient.deleteMessageBatch(DeleteMessageBatchRequest.builder()
+                    .queueUrl(queueUrl)
+                    .entries(entries)
+                    .build());
+            response.failed().forEach(failure ->
+                    log.warn("Failed to delete SQS message {}: {}", failure.id(), failure.message()));
+            return response.successful().size();
+        } catch (Exception e) {
+            log.error("Error deleting SQS message batch", e);
+            return 0;
+        }
+    }
+}
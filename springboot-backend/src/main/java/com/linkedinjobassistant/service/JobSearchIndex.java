@@ -0,0 +1,212 @@
+package com.linkedinjobassistant.service;
+
+import com.linkedinjobassistant.model.Job;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Token-level inverted index over job title, description and skills.
+ * Documents are appended as batches are ingested; a job that is indexed
+ * again under the same id replaces its previous entry.
+ */
+@Component
+@Slf4j
+public class JobSearchIndex extends JobWindowIndex {
+
+    private static final float TITLE_WEIGHT = 3.0f;
+    private static final float SKILL_WEIGHT = 2.0f;
+    private static final float DESCRIPTION_WEIGHT = 1.0f;
+
+    private final List<Job> documents = new ArrayList<>();
+    private final Map<String, Integer> documentsByJobId = new HashMap<>();
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final BitSet deleted = new BitSet();
+
+    @Override
+    protected void reset(String windowKey, Collection<Job> jobs) {
+        clear();
+        jobs.forEach(this::addDocument);
+        log.debug("Rebuilt search index for {} with {} jobs and {} terms", windowKey, jobs.size(), postings.size());
+    }
+
+    @Override
+    protected void upsert(Collection<Job> jobs) {
+        jobs.forEach(this::addDocument);
+        if (deleted.cardinality() > documents.size() / 2) {
+            compact();
+        }
+    }
+
+    /**
+     * Find jobs containing every query term, best matches first, in the
+     * snapshot's window or a newer one
+     */
+    List<Job> search(JobSnapshot snapshot, String query) {
+        Set<String> terms = new LinkedHashSet<>(JobTextTokenizer.tokenize(query));
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        return read(snapshot, () -> search(terms));
+    }
+
+    private List<Job> search(Set<String> terms) {
+        Postings[] lists = new Postings[terms.size()];
+        int i = 0;
+        for (String term : terms) {
+            Postings list = postings.get(term);
+            if (list == null) {
+                return List.of();
+            }
+            lists[i++] = list;
+        }
+        Arrays.sort(lists, Comparator.comparingInt(list -> list.size));
+
+        int liveDocuments = documents.size() - deleted.cardinality();
+        int[] candidates = Arrays.copyOf(lists[0].docs, lists[0].size);
+        float[] scores = new float[candidates.length];
+        float idf = idf(liveDocuments, lists[0].size);
+        for (int j = 0; j < candidates.length; j++) {
+            scores[j] = lists[0].weights[j] * idf;
+        }
+        int count = candidates.length;
+
+        for (int l = 1; l < lists.length && count > 0; l++) {
+            count = intersect(candidates, scores, count, lists[l], idf(liveDocuments, lists[l].size));
+        }
+
+        List<ScoredDocument> hits = new ArrayList<>(count);
+        for (int j = 0; j < count; j++) {
+            if (!deleted.get(candidates[j])) {
+                hits.add(new ScoredDocument(candidates[j], scores[j]));
+            }
+        }
+        hits.sort(Comparator.comparingDouble(ScoredDocument::score).reversed()
+                .thenComparing(Comparator.comparingInt(ScoredDocument::doc).reversed()));
+
+        List<Job> results = new ArrayList<>(hits.size());
+        for (ScoredDocument hit : hits) {
+            results.add(documents.get(hit.doc()));
+        }
+        return results;
+    }
+
+    /**
+     * Keep only candidates present in the posting list, accumulating their scores.
+     * Both arrays are sorted by doc id, so the posting list is galloped through.
+     */
+    private int intersect(int[] candidates, float[] scores, int count, Postings list, float idf) {
+        int kept = 0;
+        int position = 0;
+        for (int j = 0; j < count && position < list.size; j++) {
+            int doc = candidates[j];
+            position = seek(list.docs, position, list.size, doc);
+            if (position < list.size && list.docs[position] == doc) {
+                candidates[kept] = doc;
+                scores[kept] = scores[j] + list.weights[position] * idf;
+                kept++;
+            }
+        }
+        return kept;
+    }
+
+    /**
+     * Find the first position at or after {@code from} whose doc id is >= target
+     */
+    private int seek(int[] docs, int from, int size, int target) {
+        int step = 1;
+        int low = from;
+        int high = from;
+        while (high < size && docs[high] < target) {
+            low = high + 1;
+            high += step;
+            step <<= 1;
+        }
+        int index = Arrays.binarySearch(docs, low, Math.min(high + 1, size), target);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    private float idf(int liveDocuments, int documentFrequency) {
+        return (float) Math.log(1.0 + (double) Math.max(liveDocuments, 1) / documentFrequency);
+    }
+
+    private void addDocument(Job job) {
+        int doc = documents.size();
+        documents.add(job);
+
+        if (job.getId() != null) {
+            Integer previous = documentsByJobId.put(job.getId(), doc);
+            if (previous != null) {
+                deleted.set(previous);
+            }
+        }
+
+        Map<String, Float> termWeights = new HashMap<>();
+        addTerms(termWeights, job.getTitle(), TITLE_WEIGHT);
+        addTerms(termWeights, job.getDescription(), DESCRIPTION_WEIGHT);
+        if (job.getSkills() != null) {
+            for (String skill : job.getSkills()) {
+                addTerms(termWeights, skill, SKILL_WEIGHT);
+            }
+        }
+
+        termWeights.forEach((term, weight) ->
+                postings.computeIfAbsent(term, t -> new Postings()).add(doc, weight));
+    }
+
+    private void addTerms(Map<String, Float> termWeights, String text, float weight) {
+        for (String term : JobTextTokenizer.tokenize(text)) {
+            termWeights.merge(term, weight, Float::sum);
+        }
+    }
+
+    private void compact() {
+        List<Job> live = new ArrayList<>(documents.size() - deleted.cardinality());
+        for (int doc = 0; doc < documents.size(); doc++) {
+            if (!deleted.get(doc)) {
+                live.add(documents.get(doc));
+            }
+        }
+        clear();
+        live.forEach(this::addDocument);
+    }
+
+    private void clear() {
+        documents.clear();
+        documentsByJobId.clear();
+        postings.clear();
+        deleted.clear();
+    }
+
+    private record ScoredDocument(int doc, float score) {
+    }
+
+    /**
+     * Growable posting list of ascending doc ids with per-document term weights
+     */
+    private static final class Postings {
+        private int[] docs = new int[4];
+        private float[] weights = new float[4];
+        private int size;
+
+        void add(int doc, float weight) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            docs[size] = doc;
+            weights[size] = weight;
+            size++;
+        }
+    }
+}
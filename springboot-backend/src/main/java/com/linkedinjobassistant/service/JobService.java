@@ -1,40 +1,109 @@
 package com.linkedinjobassistant.service;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.linkedinjobassistant.cache.LocalLruCache;
+import com.linkedinjobassistant.cache.RedisValueCodec;
 import com.linkedinjobassistant.model.Job;
+import com.linkedinjobassistant.model.JobFilter;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.RedisSystemException;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import software.amazon.awssdk.services.sqs.SqsClient;
-import software.amazon.awssdk.services.sqs.model.DeleteMessageRequest;
-import software.amazon.awssdk.services.sqs.model.Message;
-import software.amazon.awssdk.services.sqs.model.ReceiveMessageRequest;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.Instant;
-import java.time.temporal.ChronoUnit;
-import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class JobService {
 
-    private final SqsClient sqsClient;
+    private final JobQueueDrainer jobQueueDrainer;
+    @Qualifier("jobsRedisTemplate")
     private final RedisTemplate<String, String> jobsRedisTemplate;
-    private final ObjectMapper objectMapper;
-    private final String queueUrl;
+    @Qualifier("jobsRedisBinaryTemplate")
+    private final RedisTemplate<String, byte[]> jobsRedisBinaryTemplate;
+    @Qualifier("jobsRedisListenerContainer")
+    private final RedisMessageListenerContainer jobsRedisListenerContainer;
+    private final RedisValueCodec redisValueCodec;
+    private final JobSearchIndex jobSearchIndex;
+    private final JobMatchIndex jobMatchIndex;
+    private final JobFacetIndex jobFacetIndex;
+    private final JobStats jobStats;
 
-    private static final int MAX_MESSAGES = 10;
-    private static final Duration MESSAGE_WAIT_TIME = Duration.ofSeconds(5);
-    private static final Duration CACHE_TTL = Duration.ofHours(1);
+    // Number of hourly buckets that make up the sliding job window
+    @Value("${app.jobs.window-hours:6}")
+    private int windowHours;
+
+    private static final long HOUR_MILLIS = Duration.ofHours(1).toMillis();
+
+    // Version counter bumped on every cached batch and announced on the updates channel
+    private static final String VERSION_KEY = "jobs:version";
+    private static final String UPDATES_CHANNEL = "jobs:updates";
+
+    // Top-K recommendations per resume and window; the window key in the cache key retires stale entries
+    private final LocalLruCache<String, List<Job>> recommendations = new LocalLruCache<>(512);
+
+    // Job rankings per resume, window and order, so paging does not re-score; all for the window in rankingsWindow
+    private final LocalLruCache<String, JobMatchIndex.Ranking> rankings = new LocalLruCache<>(128);
+    private volatile String rankingsWindow;
+
+    // Page size bounds for job listings
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+
+    /**
+     * Orders a job listing can be returned in
+     */
+    public enum JobOrder {
+        NEWEST(JobSnapshot.NEWEST_FIRST),
+        OLDEST(JobSnapshot.NEWEST_FIRST.reversed()),
+        BEST_MATCH(JobMatchIndex.BEST_MATCH_FIRST);
+
+        private final Comparator<Job> comparator;
+
+        JobOrder(Comparator<Job> comparator) {
+            this.comparator = comparator;
+        }
+    }
+
+    /**
+     * One page of jobs; nextCursor is null on the last page
+     */
+    public record JobPage(List<Job> jobs, String nextCursor) {
+    }
+
+    private final AtomicReference<JobSnapshot> snapshot = new AtomicReference<>(JobSnapshot.EMPTY);
+    private volatile long latestVersion = -1;
+
+    /**
+     * Subscribe to job cache updates published by other nodes
+     */
+    @PostConstruct
+    public void subscribeToUpdates() {
+        jobsRedisListenerContainer.addMessageListener(
+                (message, pattern) -> onJobsUpdated(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(UPDATES_CHANNEL));
+    }
 
     /**
      * Fetch jobs from SQS and cache them
@@ -44,7 +113,7 @@ public class JobService {
         log.info("Starting job fetch from SQS");
         
         try {
-            List<Job> jobs = fetchJobsFromSQS();
+            List<Job> jobs = jobQueueDrainer.drain().jobs();
             if (!jobs.isEmpty()) {
                 cacheJobs(jobs);
                 log.info("Successfully cached {} jobs", jobs.size());
@@ -54,111 +123,359 @@ public class JobService {
         }
     }
 
+    /**
+     * Key of the current job window; it changes whenever the window does
+     */
+    public String getWindowKey() {
+        return currentSnapshot().key();
+    }
+
     /**
      * Get cached jobs
      */
     public List<Job> getJobs() {
-        String currentHourKey = getCurrentHourKey();
-        String cachedJobs = jobsRedisTemplate.opsForValue().get(currentHourKey);
-        
-        if (cachedJobs != null) {
-            try {
-                return objectMapper.readValue(cachedJobs, new TypeReference<List<Job>>() {});
-            } catch (JsonProcessingException e) {
-                log.error("Error deserializing cached jobs", e);
-            }
+        return currentSnapshot().jobs();
+    }
+
+    /**
+     * Get cached jobs newest or oldest first, both orders being built when the window is
+     */
+    public List<Job> getJobs(JobOrder order) {
+        return switch (order) {
+            case NEWEST -> currentSnapshot().jobs();
+            case OLDEST -> currentSnapshot().oldestFirst();
+            case BEST_MATCH -> throw new IllegalArgumentException("Sorting by match score needs a resume");
+        };
+    }
+
+    /**
+     * One page of an ordered job list, continuing after the job the cursor
+     * points at. Cursors hold the sort key rather than a position, so pages
+     * stay consistent when the window changes between requests.
+     */
+    public JobPage pageJobs(List<Job> ordered, JobOrder order, String cursor, Integer limit) {
+        int pageSize = limit == null || limit <= 0 ? DEFAULT_PAGE_SIZE : Math.min(limit, MAX_PAGE_SIZE);
+
+        int from = 0;
+        if (cursor != null && !cursor.isEmpty()) {
+            int position = Collections.binarySearch(ordered, decodeCursor(order, cursor), order.comparator);
+            from = position >= 0 ? position + 1 : -position - 1;
         }
-        
-        return new ArrayList<>();
+
+        int to = Math.min(from + pageSize, ordered.size());
+        List<Job> page = ordered.subList(from, to);
+        String nextCursor = to < ordered.size() ? encodeCursor(order, page.get(page.size() - 1)) : null;
+        return new JobPage(page, nextCursor);
+    }
+
+    /**
+     * Search cached jobs by keyword using the inverted index
+     */
+    public List<Job> searchJobs(String keyword) {
+        return jobSearchIndex.search(currentSnapshot(), keyword);
     }
 
     /**
-     * Fetch jobs from SQS
+     * Statistics for the current job window, read from the incrementally kept counters
      */
-    private List<Job> fetchJobsFromSQS() {
-        List<Job> jobs = new ArrayList<>();
-        Instant oneHourAgo = Instant.now().minus(1, ChronoUnit.HOURS);
+    public Map<String, Object> getJobStats() {
+        return jobStats.read(currentHour());
+    }
 
-        ReceiveMessageRequest receiveRequest = ReceiveMessageRequest.builder()
-                .queueUrl(queueUrl)
-                .maxNumberOfMessages(MAX_MESSAGES)
-                .waitTimeSeconds((int) MESSAGE_WAIT_TIME.toSeconds())
-                .build();
+    /**
+     * Filter cached jobs on their categorical fields, with facet counts
+     */
+    public JobFacetIndex.FilterResult filterJobs(JobFilter filter) {
+        return jobFacetIndex.filter(currentSnapshot(), filter);
+    }
 
-        List<Message> messages = sqsClient.receiveMessage(receiveRequest).messages();
-        
-        for (Message message : messages) {
-            try {
-                Map<String, Object> messageBody = objectMapper.readValue(message.body(), new TypeReference<Map<String, Object>>() {});
-                
-                // Check message timestamp
-                String timestamp = (String) messageBody.get("timestamp");
-                if (timestamp != null) {
-                    Instant messageTime = Instant.parse(timestamp);
-                    if (messageTime.isAfter(oneHourAgo)) {
-                        // Process jobs from message
-                        List<Job> messageJobs = parseJobs(messageBody);
-                        jobs.addAll(messageJobs);
-                        
-                        // Delete processed message
-                        deleteMessage(message);
+    /**
+     * Jobs listed in [from, to) that match a filter, newest first. The stream
+     * walks the current window lazily, so nothing is collected up front.
+     */
+    public Stream<Job> exportJobs(JobFilter filter, Instant from, Instant to) {
+        return currentSnapshot().listedBetween(from, to).stream()
+                .filter(JobFacetIndex.matcher(filter));
+    }
+
+    /**
+     * Score every cached job against a resume. Jobs read from the result are
+     * copies with match scores and keywords filled in, made as they are read,
+     * so paging copies only the page. Rankings are cached per resume, window
+     * and order, for the current window only.
+     */
+    public List<Job> rankJobs(String resumeId, String resumeText, JobOrder order) {
+        JobSnapshot current = currentSnapshot();
+        String snapshotKey = current.key();
+        if (!snapshotKey.equals(rankingsWindow)) {
+            // A ranking keeps its window's jobs reachable, so rankings for older windows are dropped
+            rankings.invalidateAll();
+            rankingsWindow = snapshotKey;
+        }
+        String cacheKey = resumeId + ":" + snapshotKey + ":" + order;
+        JobMatchIndex.Ranking cached = rankings.get(cacheKey);
+        if (cached != null) {
+            return cached;
+        }
+
+        JobMatchIndex.Ranking ranked = switch (order) {
+            case NEWEST -> jobMatchIndex.rankInOrder(current, resumeText, current.jobs());
+            case OLDEST -> jobMatchIndex.rankInOrder(current, resumeText, current.oldestFirst());
+            case BEST_MATCH -> jobMatchIndex.rank(current, resumeText, current.jobs());
+        };
+        rankings.put(cacheKey, ranked);
+        return ranked;
+    }
+
+    /**
+     * The k cached jobs that best match a resume, best first. Results are
+     * cached per resume and job window, so paging through them is free.
+     */
+    public List<Job> recommendJobs(String resumeId, String resumeText, int k) {
+        JobSnapshot current = currentSnapshot();
+        String snapshotKey = current.key();
+        String cacheKey = resumeId + ":" + snapshotKey + ":" + k;
+        List<Job> cached = recommendations.get(cacheKey);
+        if (cached != null) {
+            return cached;
+        }
+
+        List<Job> best = jobMatchIndex.topK(current, resumeText, current.jobs(), k);
+        recommendations.put(cacheKey, best);
+        return best;
+    }
+
+    /**
+     * Compare against the Redis version key in case an update message was missed
+     */
+    @Scheduled(fixedDelay = 30000)
+    public void checkJobsVersion() {
+        try {
+            markVersion(readVersion());
+        } catch (Exception e) {
+            log.warn("Error checking job cache version", e);
+        }
+    }
+
+    /**
+     * Get the decoded job window, reloading it only when the hour or version moved on
+     */
+    JobSnapshot currentSnapshot() {
+        JobSnapshot current = snapshot.get();
+        if (current.isCurrent(currentHour(), latestVersion)) {
+            return current;
+        }
+        return reloadSnapshot();
+    }
+
+    /**
+     * Decode the sliding window from its hourly buckets and swap it in.
+     * Buckets are read newest first so the latest copy of a job wins.
+     */
+    private synchronized JobSnapshot reloadSnapshot() {
+        long hour = currentHour();
+        JobSnapshot current = snapshot.get();
+        if (current.isCurrent(hour, latestVersion)) {
+            return current;
+        }
+
+        long version = Math.max(readVersion(), latestVersion);
+        Map<String, Job> jobsById = new LinkedHashMap<>();
+        Map<String, String> jobIdsByUrl = new HashMap<>();
+        for (int age = 0; age < windowHours; age++) {
+            for (byte[] cachedJob : readHourValues(getHourKey(hour - age))) {
+                try {
+                    Job job = redisValueCodec.decode(cachedJob, Job.class);
+                    String url = job.getJobPostingUrl();
+                    if (job.getId() == null || jobsById.containsKey(job.getId())
+                            || (url != null && !job.getId().equals(jobIdsByUrl.getOrDefault(url, job.getId())))) {
+                        continue;
                     }
+                    jobsById.put(job.getId(), job);
+                    if (url != null) {
+                        jobIdsByUrl.put(url, job.getId());
+                    }
+                } catch (IOException e) {
+                    log.error("Error deserializing cached job", e);
                 }
-            } catch (Exception e) {
-                log.error("Error processing SQS message", e);
             }
         }
 
-        return jobs;
+        JobSnapshot reloaded = new JobSnapshot(hour, version, jobsById.values());
+        snapshot.set(reloaded);
+        log.debug("Loaded job snapshot version {} with {} jobs", version, jobsById.size());
+        return reloaded;
+    }
+
+    private void onJobsUpdated(String version) {
+        try {
+            markVersion(Long.parseLong(version));
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring malformed job update message: {}", version);
+        }
+    }
+
+    private synchronized void markVersion(long version) {
+        if (version > latestVersion) {
+            latestVersion = version;
+        }
     }
 
     /**
-     * Parse jobs from message body
+     * Read every job field of an hour window hash
      */
-    private List<Job> parseJobs(Map<String, Object> messageBody) throws JsonProcessingException {
-        Object jobsObj = messageBody.get("jobs");
-        if (jobsObj != null) {
-            String jobsJson = objectMapper.writeValueAsString(jobsObj);
-            return objectMapper.readValue(jobsJson, new TypeReference<List<Job>>() {});
+    private List<byte[]> readHourValues(String hourKey) {
+        try {
+            return jobsRedisBinaryTemplate.<String, byte[]>opsForHash().values(hourKey);
+        } catch (RedisSystemException e) {
+            // Buckets written before jobs were stored per id are plain strings until they expire
+            log.warn("Skipping job window {} with unexpected type", hourKey);
+            return List.of();
         }
-        return new ArrayList<>();
+    }
+
+    private long readVersion() {
+        String version = jobsRedisTemplate.opsForValue().get(VERSION_KEY);
+        return version != null ? Long.parseLong(version) : 0;
     }
 
     /**
-     * Delete processed message from SQS
+     * Upsert a batch into the current hour bucket, announce the new version and
+     * advance the local snapshot and search index by the batch alone.
+     * Jobs are deduplicated against the window by id and by posting URL.
      */
-    private void deleteMessage(Message message) {
-        DeleteMessageRequest deleteRequest = DeleteMessageRequest.builder()
-                .queueUrl(queueUrl)
-                .receiptHandle(message.receiptHandle())
-                .build();
-        
-        sqsClient.deleteMessage(deleteRequest);
+    private void cacheJobs(List<Job> jobs) throws IOException {
+        JobSnapshot current = currentSnapshot();
+        long hour = current.hour();
+        String hourKey = getHourKey(hour);
+
+        Map<String, Job> upserts = new LinkedHashMap<>();
+        Map<String, String> batchIdsByUrl = new HashMap<>();
+        Map<String, byte[]> fields = new LinkedHashMap<>();
+        for (Job job : jobs) {
+            String url = job.getJobPostingUrl();
+            String existingId = url != null
+                    ? current.findIdByUrl(url).orElse(batchIdsByUrl.get(url))
+                    : null;
+            if (existingId != null) {
+                job.setId(existingId);
+            } else if (job.getId() == null) {
+                job.setId(generateJobId(job));
+            }
+            if (url != null) {
+                batchIdsByUrl.put(url, job.getId());
+            }
+            upserts.put(job.getId(), job);
+            fields.put(job.getId(), redisValueCodec.encode(job));
+        }
+
+        jobsRedisBinaryTemplate.opsForHash().putAll(hourKey, fields);
+        jobsRedisBinaryTemplate.expire(hourKey, Duration.ofHours(windowHours + 1L));
+        jobStats.record(hour, upserts.values());
+        long version = jobsRedisTemplate.opsForValue().increment(VERSION_KEY);
+        jobsRedisTemplate.convertAndSend(UPDATES_CHANNEL, String.valueOf(version));
+
+        JobSnapshot next = null;
+        synchronized (this) {
+            // Only extend the local snapshot if no other writer got in between
+            if (snapshot.get() == current && version == current.version() + 1) {
+                next = current.withUpserts(version, upserts.values());
+                snapshot.set(next);
+            }
+            markVersion(version);
+        }
+        if (next != null && !jobSearchIndex.advance(current, next, upserts.values())) {
+            jobSearchIndex.rebuild(next);
+        }
+        if (next != null && !jobMatchIndex.advance(current, next, upserts.values())) {
+            jobMatchIndex.rebuild(next);
+        }
+        if (next != null && !jobFacetIndex.advance(current, next, upserts.values())) {
+            jobFacetIndex.rebuild(next);
+        }
+    }
+
+    private String encodeCursor(JobOrder order, Job last) {
+        String key = order == JobOrder.BEST_MATCH
+                ? String.valueOf(last.getMatchScore())
+                : last.getListedAt() != null ? String.valueOf(last.getListedAt().toEpochMilli()) : "";
+        String value = order + ":" + key + ":" + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
     }
 
     /**
-     * Cache jobs in Redis
+     * Turn a cursor back into a probe job carrying the sort key it was taken from
      */
-    private void cacheJobs(List<Job> jobs) throws JsonProcessingException {
-        String currentHourKey = getCurrentHourKey();
-        String jobsJson = objectMapper.writeValueAsString(jobs);
-        
-        jobsRedisTemplate.opsForValue().set(currentHourKey, jobsJson, CACHE_TTL);
+    private Job decodeCursor(JobOrder order, String cursor) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":", 3);
+            if (parts.length != 3 || !parts[0].equals(order.name())) {
+                throw new IllegalArgumentException("Cursor does not belong to this sort order");
+            }
+            Job probe = Job.builder().id(parts[2]).build();
+            if (order == JobOrder.BEST_MATCH) {
+                probe.setMatchScore(parts[1].equals("null") ? null : Double.valueOf(parts[1]));
+            } else if (!parts[1].isEmpty()) {
+                probe.setListedAt(Instant.ofEpochMilli(Long.parseLong(parts[1])));
+            }
+            return probe;
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
     }
 
     /**
-     * Generate Redis key for current hour
+     * Derive a stable id for jobs the scraper sent without one
      */
-    private String getCurrentHourKey() {
-        return String.format("jobs:%s", Instant.now().truncatedTo(ChronoUnit.HOURS));
+    private String generateJobId(Job job) {
+        if (job.getJobPostingUrl() != null) {
+            return UUID.nameUUIDFromBytes(job.getJobPostingUrl().getBytes(StandardCharsets.UTF_8)).toString();
+        }
+        return UUID.randomUUID().toString();
     }
 
     /**
-     * Get job by ID from cache
+     * Hours since the epoch, cheap enough to compare on every read
+     */
+    private long currentHour() {
+        return System.currentTimeMillis() / HOUR_MILLIS;
+    }
+
+    /**
+     * Generate Redis key for an hourly bucket of the window
+     */
+    private String getHourKey(long hour) {
+        return String.format("jobs:%s", Instant.ofEpochMilli(hour * HOUR_MILLIS));
+    }
+
+    /**
+     * Get job by ID from the local snapshot, or field by field from the hourly buckets when stale
      */
     public Optional<Job> getJobById(String jobId) {
-        return getJobs().stream()
-                .filter(job -> job.getId().equals(jobId))
-                .findFirst();
+        if (jobId == null) {
+            return Optional.empty();
+        }
+
+        long hour = currentHour();
+        JobSnapshot current = snapshot.get();
+        if (current.isCurrent(hour, latestVersion)) {
+            return current.findById(jobId);
+        }
+
+        try {
+            for (int age = 0; age < windowHours; age++) {
+                byte[] cachedJob = jobsRedisBinaryTemplate.<String, byte[]>opsForHash().get(getHourKey(hour - age), jobId);
+                if (cachedJob != null) {
+                    return Optional.of(redisValueCodec.decode(cachedJob, Job.class));
+                }
+            }
+            return Optional.empty();
+        } catch (RedisSystemException e) {
+            log.warn("Could not read job {} from cache", jobId, e);
+            return Optional.empty();
+        } catch (IOException e) {
+            log.error("Error deserializing cached job {}", jobId, e);
+            return Optional.empty();
+        }
     }
 }
@@ -0,0 +1,148 @@
+package com.linkedinjobassistant.service;
+
+import com.linkedinjobassistant.model.Job;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Immutable, decoded view of the sliding job window at a given cache version.
+ * Replaced as a whole whenever a new batch is cached, never mutated in place.
+ */
+final class JobSnapshot {
+
+    // Total order (ties broken by id) so a job's sort key can serve as a page cursor
+    static final Comparator<Job> NEWEST_FIRST = Comparator.comparing(
+            Job::getListedAt, Comparator.nullsLast(Comparator.<Instant>reverseOrder()))
+            .thenComparing(Job::getId, Comparator.nullsLast(Comparator.<String>naturalOrder()));
+
+    static final JobSnapshot EMPTY = new JobSnapshot(-1, -1, List.of());
+
+    private final long hour;
+    private final long version;
+    private final List<Job> jobs;
+    private final List<Job> oldestFirst;
+    private final Map<String, Job> jobsById;
+    private final Map<String, String> jobIdsByUrl;
+
+    JobSnapshot(long hour, long version, Collection<Job> jobs) {
+        this.hour = hour;
+        this.version = version;
+        this.jobs = jobs.stream()
+                .filter(Objects::nonNull)
+                .sorted(NEWEST_FIRST)
+                .toList();
+        List<Job> reversed = new ArrayList<>(this.jobs);
+        Collections.reverse(reversed);
+        this.oldestFirst = Collections.unmodifiableList(reversed);
+        this.jobsById = new HashMap<>(this.jobs.size() * 2);
+        this.jobIdsByUrl = new HashMap<>(this.jobs.size() * 2);
+        for (Job job : this.jobs) {
+            if (job.getId() != null) {
+                jobsById.putIfAbsent(job.getId(), job);
+                if (job.getJobPostingUrl() != null) {
+                    jobIdsByUrl.putIfAbsent(job.getJobPostingUrl(), job.getId());
+                }
+            }
+        }
+    }
+
+    /**
+     * Build the next snapshot by replacing or appending the given jobs, matched by id
+     */
+    JobSnapshot withUpserts(long newVersion, Collection<Job> upserts) {
+        Set<String> upsertIds = new HashSet<>();
+        upserts.forEach(job -> upsertIds.add(job.getId()));
+
+        List<Job> merged = new ArrayList<>(jobs.size() + upserts.size());
+        for (Job job : jobs) {
+            if (!upsertIds.contains(job.getId())) {
+                merged.add(job);
+            }
+        }
+        merged.addAll(upserts);
+        return new JobSnapshot(hour, newVersion, merged);
+    }
+
+    long hour() {
+        return hour;
+    }
+
+    long version() {
+        return version;
+    }
+
+    /**
+     * Jobs newest first
+     */
+    List<Job> jobs() {
+        return jobs;
+    }
+
+    /**
+     * Jobs oldest first, the exact reverse of {@link #jobs()}
+     */
+    List<Job> oldestFirst() {
+        return oldestFirst;
+    }
+
+    /**
+     * Jobs listed in [from, to), newest first, as a view of {@link #jobs()}.
+     * Either bound may be null; jobs without a listing time fall outside any range.
+     */
+    List<Job> listedBetween(Instant from, Instant to) {
+        if (from == null && to == null) {
+            return jobs;
+        }
+        int start = to == null ? 0 : insertionPoint(to);
+        int end = insertionPoint(from == null ? Instant.MIN : from);
+        return jobs.subList(start, Math.max(start, end));
+    }
+
+    /**
+     * Index of the first job listed before the given time; a probe without
+     * an id sorts after every job listed at exactly that time
+     */
+    private int insertionPoint(Instant listedAt) {
+        Job probe = Job.builder().listedAt(listedAt).build();
+        return -Collections.binarySearch(jobs, probe, NEWEST_FIRST) - 1;
+    }
+
+    /**
+     * Look up a job in this window by id
+     */
+    Optional<Job> findById(String jobId) {
+        return Optional.ofNullable(jobsById.get(jobId));
+    }
+
+    /**
+     * Find the id already used for a posting URL in this window
+     */
+    Optional<String> findIdByUrl(String jobPostingUrl) {
+        return Optional.ofNullable(jobIdsByUrl.get(jobPostingUrl));
+    }
+
+    /**
+     * Check whether this snapshot still covers the given hour and version
+     */
+    boolean isCurrent(long currentHour, long latestVersion) {
+        return hour == currentHour && version >= latestVersion;
+    }
+
+    /**
+     * Identity of the window contents, used to tie derived indexes to a snapshot
+     */
+    String key() {
+        return hour + "@" + version;
+    }
+}
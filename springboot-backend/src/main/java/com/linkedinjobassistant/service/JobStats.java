@@ -0,0 +1,384 @@
+package com.linkedinjobassistant.service;
+
+import com.linkedinjobassistant.model.Job;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Job statistics kept as Redis counters alongside the hourly job buckets.
+ * Each job is counted in the stats hash of the bucket that holds its newest
+ * copy, and the bucket's members hash records which counters it added, so a
+ * re-ingested job is moved out of exactly what it was counted in. Moves are
+ * done by one script per batch, so concurrent writers on any node cannot
+ * count a job twice.
+ *
+ * The statistics of a window are kept as a totals hash plus one sorted set
+ * per histogram, built once from the window's buckets and then updated by
+ * every batch. Reading them is a fixed number of fields and top entries.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class JobStats {
+
+    @Qualifier("jobsRedisTemplate")
+    private final RedisTemplate<String, String> jobsRedisTemplate;
+
+    @Value("${app.jobs.window-hours:6}")
+    private int windowHours;
+
+    private static final long HOUR_MILLIS = Duration.ofHours(1).toMillis();
+    // Jobs listed this many hours ago or less count as recent, as in Job.isRecent
+    private static final int RECENT_HOURS = 24;
+    private static final int MAX_HISTOGRAM_VALUES = 20;
+
+    // Field names also used by the scripts below
+    private static final String TOTAL = "total";
+    private static final String LAST_UPDATE = "last_update";
+    private static final String BUILT = "built";
+    private static final String LISTED_PREFIX = "listed:";
+    private static final String NOT_LISTED = "listed:none";
+
+    /**
+     * Count a batch in its bucket. KEYS are the window's stats buckets oldest
+     * first, their members hashes, then the hash and histogram sets of each
+     * window from the batch's hour on. ARGV are the window hours, histogram
+     * count, hour, latest listing, bucket expiry and histogram prefixes,
+     * followed by each job's id, field count and fields. Windows that are
+     * not built yet are left alone; they are built from the buckets later.
+     */
+    private static final RedisScript<Long> RECORD = new DefaultRedisScript<>("""
+            local n = tonumber(ARGV[1])
+            local h = tonumber(ARGV[2])
+            local hour = tonumber(ARGV[3])
+            local latest = tonumber(ARGV[4])
+            local first = hour - n + 1
+            local prefixes = {}
+            for i = 1, h do prefixes[i] = ARGV[5 + i] end
+            local built = {}
+            for w = 0, n - 1 do
+              built[w] = redis.call('EXISTS', KEYS[2 * n + w * (h + 1) + 1]) == 1
+            end
+
+            local function add(bucket, field, delta)
+              redis.call('HINCRBY', KEYS[bucket - first + 1], field, delta)
+              local histogram = nil
+              for i = 1, h do
+                if string.sub(field, 1, #prefixes[i]) == prefixes[i] then histogram = i break end
+              end
+              -- Window hour + w holds the buckets from hour + w - n + 1 to hour + w
+              for w = 0, bucket - first do
+                if built[w] then
+                  local base = 2 * n + w * (h + 1)
+                  if histogram then
+                    local value = string.sub(field, #prefixes[histogram] + 1)
+                    if tonumber(redis.call('ZINCRBY', KEYS[base + 1 + histogram], delta, value)) <= 0 then
+                      redis.call('ZREM', KEYS[base + 1 + histogram], value)
+                    end
+                  else
+                    redis.call('HINCRBY', KEYS[base + 1], field, delta)
+                  end
+                end
+              end
+            end
+
+            local function setIfGreater(key)
+              if latest > tonumber(redis.call('HGET', key, 'last_update') or '0') then
+                redis.call('HSET', key, 'last_update', ARGV[4])
+              end
+            end
+
+            local i = 6 + h
+            while i <= #ARGV do
+              local id = ARGV[i]
+              local count = tonumber(ARGV[i + 1])
+              local fields = {}
+              for j = 1, count do fields[j] = ARGV[i + 1 + j] end
+              i = i + 2 + count
+              for bucket = hour, first, -1 do
+                local members = KEYS[n + bucket - first + 1]
+                local previous = redis.call('HGET', members, id)
+                if previous then
+                  for _, field in ipairs(cjson.decode(previous)) do add(bucket, field, -1) end
+                  redis.call('HDEL', members, id)
+                  break
+                end
+              end
+              for _, field in ipairs(fields) do add(hour, field, 1) end
+              redis.call('HSET', KEYS[2 * n], id, cjson.encode(fields))
+            end
+
+            if latest > 0 then
+              setIfGreater(KEYS[n])
+              for w = 0, n - 1 do
+                if built[w] then setIfGreater(KEYS[2 * n + w * (h + 1) + 1]) end
+              end
+            end
+            redis.call('EXPIREAT', KEYS[n], ARGV[5])
+            redis.call('EXPIREAT', KEYS[2 * n], ARGV[5])
+            return 1
+            """, Long.class);
+
+    /**
+     * Build a window's hash and histogram sets from its stats buckets unless
+     * it already exists. KEYS are the window hash, its histogram sets and the
+     * buckets; ARGV are the histogram count, prefixes and window expiry.
+     */
+    private static final RedisScript<Long> BUILD_WINDOW = new DefaultRedisScript<>("""
+            if redis.call('EXISTS', KEYS[1]) == 1 then return 0 end
+            local h = tonumber(ARGV[1])
+            local prefixes = {}
+            for i = 1, h do prefixes[i] = ARGV[1 + i] end
+            for k = h + 2, #KEYS do
+              local fields = redis.call('HGETALL', KEYS[k])
+              for i = 1, #fields, 2 do
+                local field = fields[i]
+                local value = tonumber(fields[i + 1])
+                if field == 'last_update' then
+                  if value > tonumber(redis.call('HGET', KEYS[1], field) or '0') then
+                    redis.call('HSET', KEYS[1], field, fields[i + 1])
+                  end
+                else
+                  local histogram = nil
+                  for j = 1, h do
+                    if string.sub(field, 1, #prefixes[j]) == prefixes[j] then histogram = j break end
+                  end
+                  if histogram then
+                    redis.call('ZINCRBY', KEYS[1 + histogram], value, string.sub(field, #prefixes[histogram] + 1))
+                  else
+                    redis.call('HINCRBY', KEYS[1], field, value)
+                  end
+                end
+              end
+            end
+            for j = 1, h do redis.call('ZREMRANGEBYSCORE', KEYS[1 + j], '-inf', 0) end
+            redis.call('HSET', KEYS[1], 'built', 1)
+            for k = 1, h + 1 do redis.call('EXPIREAT', KEYS[k], ARGV[h + 2]) end
+            return 1
+            """, Long.class);
+
+    /**
+     * Per-value job counts kept for each bucket and window
+     */
+    private enum Histogram {
+        SOURCE("source:", "by_source", Job::getSource),
+        COMPANY("company:", "by_company", Job::getCompanyName),
+        LOCATION("location:", "by_location", Job::getLocation),
+        EMPLOYMENT_TYPE("employment_type:", "by_employment_type", Job::getEmploymentType),
+        EXPERIENCE_LEVEL("experience_level:", "by_experience_level", Job::getExperienceLevel);
+
+        private final String prefix;
+        private final String name;
+        private final Function<Job, String> value;
+
+        Histogram(String prefix, String name, Function<Job, String> value) {
+            this.prefix = prefix;
+            this.name = name;
+            this.value = value;
+        }
+    }
+
+    private static final Histogram[] HISTOGRAMS = Histogram.values();
+
+    /**
+     * Count a batch just written to the given hour's bucket, moving jobs the
+     * window already held out of the counters of the bucket they were in
+     */
+    void record(long hour, Collection<Job> upserts) {
+        if (upserts.isEmpty()) {
+            return;
+        }
+
+        List<String> keys = new ArrayList<>();
+        for (long bucket = hour - windowHours + 1; bucket <= hour; bucket++) {
+            keys.add(getStatsKey(bucket));
+        }
+        for (long bucket = hour - windowHours + 1; bucket <= hour; bucket++) {
+            keys.add(getMembersKey(bucket));
+        }
+        for (long window = hour; window < hour + windowHours; window++) {
+            keys.addAll(getWindowKeys(window));
+        }
+
+        long latestListing = upserts.stream()
+                .filter(job -> job.getListedAt() != null)
+                .mapToLong(job -> job.getListedAt().toEpochMilli())
+                .max()
+                .orElse(0);
+        List<String> args = new ArrayList<>();
+        args.add(String.valueOf(windowHours));
+        args.add(String.valueOf(HISTOGRAMS.length));
+        args.add(String.valueOf(hour));
+        args.add(String.valueOf(latestListing));
+        args.add(String.valueOf(expiry(hour).getEpochSecond()));
+        for (Histogram histogram : HISTOGRAMS) {
+            args.add(histogram.prefix);
+        }
+        for (Job job : upserts) {
+            List<String> fields = fields(job);
+            args.add(job.getId());
+            args.add(String.valueOf(fields.size()));
+            args.addAll(fields);
+        }
+
+        jobsRedisTemplate.execute(RECORD, keys, args.toArray());
+    }
+
+    /**
+     * Statistics for the window ending at the given hour, building the
+     * window's counters from its buckets on the first read of the hour
+     */
+    Map<String, Object> read(long currentHour) {
+        List<Object> fields = new ArrayList<>(List.of(BUILT, TOTAL, LAST_UPDATE, NOT_LISTED));
+        for (long listed = currentHour - RECENT_HOURS; listed <= currentHour; listed++) {
+            fields.add(LISTED_PREFIX + listed);
+        }
+
+        List<Object> window = readWindow(currentHour, fields);
+        if (((List<?>) window.get(0)).get(0) == null) {
+            buildWindow(currentHour);
+            window = readWindow(currentHour, fields);
+        }
+
+        List<?> values = (List<?>) window.get(0);
+        long recent = 0;
+        for (int i = 3; i < values.size(); i++) {
+            recent += Math.max(asLong(values.get(i)), 0);
+        }
+        long lastUpdate = asLong(values.get(2));
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("total_jobs", Math.max(asLong(values.get(1)), 0));
+        stats.put("recent_jobs", recent);
+        stats.put("last_update", lastUpdate > 0 ? Instant.ofEpochMilli(lastUpdate) : null);
+        for (int i = 0; i < HISTOGRAMS.length; i++) {
+            stats.put(HISTOGRAMS[i].name, histogram(window.get(i + 1)));
+        }
+        return stats;
+    }
+
+    /**
+     * Read the given totals fields and the top of every histogram of a window in one round trip
+     */
+    private List<Object> readWindow(long hour, List<Object> fields) {
+        List<String> keys = getWindowKeys(hour);
+        return jobsRedisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, String> redis = (RedisOperations<String, String>) operations;
+                redis.opsForHash().multiGet(keys.get(0), fields);
+                for (int i = 1; i < keys.size(); i++) {
+                    redis.opsForZSet().reverseRangeByScoreWithScores(
+                            keys.get(i), 1, Double.POSITIVE_INFINITY, 0, MAX_HISTOGRAM_VALUES);
+                }
+                return null;
+            }
+        });
+    }
+
+    private void buildWindow(long hour) {
+        List<String> keys = new ArrayList<>(getWindowKeys(hour));
+        for (int age = 0; age < windowHours; age++) {
+            keys.add(getStatsKey(hour - age));
+        }
+        List<String> args = new ArrayList<>();
+        args.add(String.valueOf(HISTOGRAMS.length));
+        for (Histogram histogram : HISTOGRAMS) {
+            args.add(histogram.prefix);
+        }
+        // A window is only read during its own hour
+        args.add(String.valueOf(Instant.ofEpochMilli((hour + 2) * HOUR_MILLIS).getEpochSecond()));
+        jobsRedisTemplate.execute(BUILD_WINDOW, keys, args.toArray());
+    }
+
+    /**
+     * Counter fields a job adds to its bucket
+     */
+    private List<String> fields(Job job) {
+        List<String> fields = new ArrayList<>(2 + HISTOGRAMS.length);
+        fields.add(TOTAL);
+        fields.add(job.getListedAt() != null
+                ? LISTED_PREFIX + job.getListedAt().toEpochMilli() / HOUR_MILLIS
+                : NOT_LISTED);
+        for (Histogram histogram : HISTOGRAMS) {
+            String value = histogram.value.apply(job);
+            if (value != null && !value.isBlank()) {
+                fields.add(histogram.prefix + value.strip());
+            }
+        }
+        return fields;
+    }
+
+    /**
+     * Most frequent values of one histogram, as read highest count first
+     */
+    private Map<String, Long> histogram(Object entries) {
+        Map<String, Long> histogram = new LinkedHashMap<>();
+        if (entries instanceof Set<?> tuples) {
+            for (Object tuple : tuples) {
+                TypedTuple<?> entry = (TypedTuple<?>) tuple;
+                histogram.put(String.valueOf(entry.getValue()), entry.getScore().longValue());
+            }
+        }
+        return histogram;
+    }
+
+    private static long asLong(Object value) {
+        return value != null ? Long.parseLong(String.valueOf(value)) : 0;
+    }
+
+    /**
+     * Stats buckets outlive their job bucket by the same margin the job buckets use
+     */
+    private Instant expiry(long bucketHour) {
+        return Instant.ofEpochMilli((bucketHour + windowHours + 1) * HOUR_MILLIS);
+    }
+
+    /**
+     * Generate Redis key for the statistics of an hourly bucket
+     */
+    private String getStatsKey(long hour) {
+        return String.format("jobs:stats:%s", Instant.ofEpochMilli(hour * HOUR_MILLIS));
+    }
+
+    /**
+     * Generate Redis key for the counted fields of each job in an hourly bucket
+     */
+    private String getMembersKey(long hour) {
+        return String.format("jobs:stats:members:%s", Instant.ofEpochMilli(hour * HOUR_MILLIS));
+    }
+
+    /**
+     * Redis keys of a window's totals hash followed by one sorted set per histogram
+     */
+    private List<String> getWindowKeys(long hour) {
+        String windowKey = String.format("jobs:stats:window:%s", Instant.ofEpochMilli(hour * HOUR_MILLIS));
+        List<String> keys = new ArrayList<>(1 + HISTOGRAMS.length);
+        keys.add(windowKey);
+        for (Histogram histogram : HISTOGRAMS) {
+            keys.add(windowKey + ":" + histogram.name);
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,44 @@
+package com.linkedinjobassistant.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits job and resume text into lower-cased search terms.
+ * Letters and digits form terms; '+' and '#' are kept so that
+ * skills like "C++" and "C#" survive tokenization.
+ */
+public final class JobTextTokenizer {
+
+    private static final int MAX_TOKEN_LENGTH = 64;
+
+    private JobTextTokenizer() {
+    }
+
+    /**
+     * Tokenize text into lower-cased terms
+     */
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+
+        StringBuilder current = new StringBuilder();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c) || ((c == '+' || c == '#') && current.length() > 0)) {
+                if (current.length() < MAX_TOKEN_LENGTH) {
+                    current.append(Character.toLowerCase(c));
+                }
+            } else if (current.length() > 0) {
+                tokens.add(current.toString());
+                current.setLength(0);
+            }
+        }
+        if (current.length() > 0) {
+            tokens.add(current.toString());
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,102 @@
+package com.linkedinjobassistant.service;
+
+import com.linkedinjobassistant.model.Job;
+
+import java.util.Collection;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Common base of the in-process job indexes: tracks which job window the
+ * index holds and only ever moves it forward, ordered by hour and then cache
+ * version. A request holding an older snapshot reads the newer index instead
+ * of rebuilding it back, and the check, any rebuild and the query all happen
+ * under one lock.
+ */
+abstract class JobWindowIndex {
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private long windowHour = Long.MIN_VALUE;
+    private long windowVersion = Long.MIN_VALUE;
+
+    /**
+     * Run a query against the index at the snapshot's window or a newer one,
+     * rebuilding it from the snapshot first if it is behind
+     */
+    protected <T> T read(JobSnapshot snapshot, Supplier<T> query) {
+        lock.readLock().lock();
+        if (isBehind(snapshot)) {
+            lock.readLock().unlock();
+            lock.writeLock().lock();
+            try {
+                if (isBehind(snapshot)) {
+                    load(snapshot);
+                }
+                // Downgrade, so no writer gets in between the rebuild and the query
+                lock.readLock().lock();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        try {
+            return query.get();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rebuild from a full window, unless the index already holds it or a newer one
+     */
+    void rebuild(JobSnapshot snapshot) {
+        lock.writeLock().lock();
+        try {
+            if (isBehind(snapshot)) {
+                load(snapshot);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Move the index from one window to the next by adding only the upserted jobs.
+     * Returns false, leaving the index untouched, if it is not at the expected window.
+     */
+    boolean advance(JobSnapshot from, JobSnapshot to, Collection<Job> upserts) {
+        lock.writeLock().lock();
+        try {
+            if (windowHour != from.hour() || windowVersion != from.version()) {
+                return false;
+            }
+            upsert(upserts);
+            windowHour = to.hour();
+            windowVersion = to.version();
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Drop everything and index a full window; called with the write lock held
+     */
+    protected abstract void reset(String windowKey, Collection<Job> jobs);
+
+    /**
+     * Index upserted jobs on top of the current contents; called with the write lock held
+     */
+    protected abstract void upsert(Collection<Job> jobs);
+
+    private void load(JobSnapshot snapshot) {
+        reset(snapshot.key(), snapshot.jobs());
+        windowHour = snapshot.hour();
+        windowVersion = snapshot.version();
+    }
+
+    private boolean isBehind(JobSnapshot snapshot) {
+        return windowHour < snapshot.hour() || (windowHour == snapshot.hour() && windowVersion < snapshot.version());
+    }
+}
@@ -0,0 +1,186 @@
+package com.linkedinjobassistant.service;
+
+import com.linkedinjobassistant.cache.ContentHash;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Bounded-memory PDF text extraction. Uploads are spooled to a temp file and
+ * opened from disk with a mixed memory/scratch-file stream cache, so heap use
+ * does not grow with the upload size. Text is extracted page by page up to a
+ * page and character cap; large documents are split into page ranges that are
+ * extracted in parallel, each worker with its own document instance.
+ */
+@Component
+@Slf4j
+public class PdfTextExtractor {
+
+    /**
+     * An upload copied to a temp file, with the SHA-256 of its bytes
+     */
+    public record SpooledPdf(Path path, String contentHash) {
+    }
+
+    private final int maxPages;
+    private final int maxChars;
+    private final int parallelThresholdPages;
+    private final long maxMainMemoryBytes;
+    private final int workers;
+    private final ExecutorService executor;
+
+    public PdfTextExtractor(
+            @Value("${app.pdf.max-pages:50}") int maxPages,
+            @Value("${app.pdf.max-chars:200000}") int maxChars,
+            @Value("${app.pdf.parallel-threshold-pages:16}") int parallelThresholdPages,
+            @Value("${app.pdf.max-main-memory-bytes:4194304}") long maxMainMemoryBytes,
+            @Value("${app.pdf.workers:4}") int workers) {
+        this.maxPages = maxPages;
+        this.maxChars = maxChars;
+        this.parallelThresholdPages = parallelThresholdPages;
+        this.maxMainMemoryBytes = maxMainMemoryBytes;
+        this.workers = Math.max(workers, 1);
+        this.executor = Executors.newFixedThreadPool(this.workers, new CustomizableThreadFactory("pdf-"));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Extract text from an upload, spooling it to a temp file first
+     */
+    public String extract(MultipartFile file) throws IOException {
+        SpooledPdf pdf = spool(file);
+        try {
+            return extract(pdf.path());
+        } finally {
+            Files.deleteIfExists(pdf.path());
+        }
+    }
+
+    /**
+     * Copy an upload to a temp file the caller is responsible for deleting,
+     * hashing the bytes on the way through
+     */
+    public SpooledPdf spool(MultipartFile file) throws IOException {
+        Path pdf = Files.createTempFile("resume-", ".pdf");
+        try {
+            MessageDigest digest = ContentHash.sha256();
+            try (InputStream in = new DigestInputStream(file.getInputStream(), digest)) {
+                Files.copy(in, pdf, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return new SpooledPdf(pdf, ContentHash.hex(digest));
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(pdf);
+            throw e;
+        }
+    }
+
+    /**
+     * Extract text from a PDF on disk
+     */
+    public String extract(Path pdf) throws IOException {
+        long started = System.nanoTime();
+        int pages;
+        String text;
+        try (PDDocument document = open(pdf)) {
+            pages = Math.min(document.getNumberOfPages(), maxPages);
+            if (pages < parallelThresholdPages || workers == 1) {
+                text = extractPages(document, 1, pages, new AtomicBoolean());
+            } else {
+                text = extractParallel(document, pdf, pages);
+            }
+        }
+
+        log.debug("Extracted {} chars from {} pages in {} ms", text.length(), pages,
+                (System.nanoTime() - started) / 1_000_000);
+        return text.length() > maxChars ? text.substring(0, maxChars) : text;
+    }
+
+    private String extractParallel(PDDocument document, Path pdf, int pages) throws IOException {
+        int rangeSize = (pages + workers - 1) / workers;
+        List<CompletableFuture<String>> ranges = new ArrayList<>();
+        // Cancelling a future does not stop a worker that has started, so workers also check this between pages
+        AtomicBoolean stop = new AtomicBoolean();
+        // The first range reuses the open document; the others open their own
+        for (int start = 1 + rangeSize; start <= pages; start += rangeSize) {
+            int first = start;
+            int last = Math.min(start + rangeSize - 1, pages);
+            ranges.add(CompletableFuture.supplyAsync(() -> {
+                if (stop.get()) {
+                    return "";
+                }
+                try (PDDocument own = open(pdf)) {
+                    return extractPages(own, first, last, stop);
+                } catch (IOException e) {
+                    throw new CompletionException(e);
+                }
+            }, executor));
+        }
+
+        StringBuilder text = new StringBuilder();
+        try {
+            text.append(extractPages(document, 1, Math.min(rangeSize, pages), stop));
+            for (CompletableFuture<String> range : ranges) {
+                if (text.length() >= maxChars) {
+                    stop.set(true);
+                    range.cancel(false);
+                    continue;
+                }
+                text.append(range.join());
+            }
+        } catch (IOException | RuntimeException e) {
+            stop.set(true);
+            ranges.forEach(range -> range.cancel(false));
+            if (e instanceof CompletionException && e.getCause() instanceof IOException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+        return text.toString();
+    }
+
+    /**
+     * Extract pages first..last (1-based, inclusive), stopping once the character
+     * cap is reached or the extraction is abandoned
+     */
+    private String extractPages(PDDocument document, int first, int last, AtomicBoolean stop) throws IOException {
+        PDFTextStripper stripper = new PDFTextStripper();
+        StringWriter text = new StringWriter();
+        for (int page = first; page <= last && text.getBuffer().length() < maxChars && !stop.get(); page++) {
+            stripper.setStartPage(page);
+            stripper.setEndPage(page);
+            stripper.writeText(document, text);
+        }
+        return text.toString();
+    }
+
+    private PDDocument open(Path pdf) throws IOException {
+        return Loader.loadPDF(pdf.toFile(), MemoryUsageSetting.setupMixed(maxMainMemoryBytes).streamCache);
+    }
+}
@@ -0,0 +1,147 @@
+package com.linkedinjobassistant.service;
+
+import com.linkedinjobassistant.cache.ContentHash;
+import com.linkedinjobassistant.cache.RedisValueCodec;
+import com.linkedinjobassistant.model.Profile;
+import com.linkedinjobassistant.model.Resume;
+import com.linkedinjobassistant.model.StoredProfile;
+import com.linkedinjobassistant.repository.ProfileRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.UnaryOperator;
+
+/**
+ * Stored profiles, one per resume. Profiles are cached in Redis under the
+ * resume id and a hash of the resume text, with Mongo as the durable copy.
+ * A profile is regenerated only when the resume text no longer matches the
+ * hash it was generated (or last edited) against.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProfileService {
+
+    private final ProfileRepository profileRepository;
+    @Qualifier("redisBinaryTemplate")
+    private final RedisTemplate<String, byte[]> redisBinaryTemplate;
+    private final RedisValueCodec redisValueCodec;
+    private final AIRequestCoalescer aiRequestCoalescer;
+    private final AIService aiService;
+
+    // Cache TTL for profiles
+    private static final Duration CACHE_TTL = Duration.ofHours(24);
+
+    /**
+     * Get the stored profile for the resume's current text, if there is one
+     */
+    public Optional<Profile> findCurrent(Resume resume) {
+        String textHash = ContentHash.sha256Hex(resume.getText());
+        String key = getCacheKey(resume.getId(), textHash);
+
+        Profile cached = readCachedProfile(key);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        return profileRepository.findByResumeIdAndUserId(resume.getId(), resume.getUserId())
+                .filter(stored -> textHash.equals(stored.getTextHash()))
+                .map(stored -> {
+                    cacheProfile(key, stored.getProfile());
+                    return stored.getProfile();
+                });
+    }
+
+    /**
+     * Get the stored profile for the resume, generating and storing one
+     * if there is none for the current resume text
+     */
+    public CompletableFuture<Profile> getOrGenerate(Resume resume, UnaryOperator<Profile> finisher) {
+        Optional<Profile> current = findCurrent(resume);
+        if (current.isPresent()) {
+            return CompletableFuture.completedFuture(current.get());
+        }
+        // A failed generation gets the placeholder, which is never stored so the next request retries
+        return aiRequestCoalescer.generateProfile(resume.getText(), finisher)
+                .handle((profile, error) -> error != null
+                        ? finisher.apply(aiService.fallbackProfile(error))
+                        : save(resume, profile, false));
+    }
+
+    /**
+     * Generate a profile without storing it; a failed generation yields the placeholder profile
+     */
+    public CompletableFuture<Profile> generate(String resumeText, UnaryOperator<Profile> finisher) {
+        return aiRequestCoalescer.generateProfile(resumeText, finisher)
+                .exceptionally(error -> finisher.apply(aiService.fallbackProfile(error)));
+    }
+
+    /**
+     * Store a profile for the resume's current text and refresh the cache
+     */
+    public Profile save(Resume resume, Profile profile, boolean edited) {
+        String textHash = ContentHash.sha256Hex(resume.getText());
+        profileRepository.save(StoredProfile.builder()
+                .resumeId(resume.getId())
+                .userId(resume.getUserId())
+                .textHash(textHash)
+                .edited(edited)
+                .profile(profile)
+                .updatedAt(Instant.now())
+                .build());
+        cacheProfile(getCacheKey(resume.getId(), textHash), profile);
+        return profile;
+    }
+
+    /**
+     * Delete the stored profile for a resume and clear its cache
+     */
+    public void deleteProfile(String resumeId, String userId) {
+        profileRepository.findByResumeIdAndUserId(resumeId, userId).ifPresent(stored -> {
+            profileRepository.delete(stored);
+            redisBinaryTemplate.delete(getCacheKey(stored.getResumeId(), stored.getTextHash()));
+        });
+    }
+
+    /**
+     * Cache a profile in Redis
+     */
+    private void cacheProfile(String key, Profile profile) {
+        try {
+            redisBinaryTemplate.opsForValue().set(key, redisValueCodec.encode(profile), CACHE_TTL);
+        } catch (IOException e) {
+            log.error("Error encoding profile for cache", e);
+        }
+    }
+
+    /**
+     * Read a cached profile, treating undecodable entries as a miss
+     */
+    private Profile readCachedProfile(String key) {
+        byte[] cached = redisBinaryTemplate.opsForValue().get(key);
+        if (cached == null) {
+            return null;
+        }
+        try {
+            return redisValueCodec.decode(cached, Profile.class);
+        } catch (IOException e) {
+            log.error("Error decoding cached profile {}", key, e);
+            return null;
+        }
+    }
+
+    /**
+     * Generate Redis cache key
+     */
+    static String getCacheKey(String resumeId, String textHash) {
+        return String.format("profile:%s:%s", resumeId, textHash);
+    }
+}
@@ -0,0 +1,126 @@
+package com.linkedinjobassistant.service;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.function.BiConsumer;
+
+/**
+ * Incremental parser for a streamed profile completion. Token chunks are fed
+ * to Jackson's non-blocking parser, and each top-level field of the profile
+ * object (experience, education, ...) is handed to the callback as soon as
+ * its value is complete. Text before the opening brace, such as a markdown
+ * fence, and anything after the closing brace is ignored.
+ */
+final class ProfileStreamParser {
+
+    private final ObjectMapper objectMapper;
+    private final BiConsumer<String, JsonNode> onSection;
+    private final JsonParser parser;
+    private final ByteArrayFeeder feeder;
+    private final ObjectNode profile;
+
+    private boolean started;
+    private boolean finished;
+    private int depth;
+    private String section;
+    private TokenBuffer value;
+
+    ProfileStreamParser(ObjectMapper objectMapper, BiConsumer<String, JsonNode> onSection) throws IOException {
+        this.objectMapper = objectMapper;
+        this.onSection = onSection;
+        this.parser = objectMapper.getFactory().createNonBlockingByteArrayParser();
+        this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+        this.profile = objectMapper.createObjectNode();
+    }
+
+    /**
+     * Feed the next chunk of completion text
+     */
+    void feed(String chunk) throws IOException {
+        if (finished || chunk == null || chunk.isEmpty()) {
+            return;
+        }
+        if (!started) {
+            int start = chunk.indexOf('{');
+            if (start < 0) {
+                return;
+            }
+            chunk = chunk.substring(start);
+            started = true;
+        }
+
+        byte[] bytes = chunk.getBytes(StandardCharsets.UTF_8);
+        feeder.feedInput(bytes, 0, bytes.length);
+        JsonToken token;
+        while (!finished && (token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+            accept(token);
+        }
+    }
+
+    /**
+     * Whether the closing brace of the profile object has been seen
+     */
+    boolean isComplete() {
+        return finished;
+    }
+
+    /**
+     * The sections parsed so far, as one object
+     */
+    ObjectNode profile() {
+        return profile;
+    }
+
+    private void accept(JsonToken token) throws IOException {
+        if (depth == 0) {
+            if (token != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "Expected a JSON object for the profile");
+            }
+            depth = 1;
+            return;
+        }
+
+        if (depth == 1) {
+            if (token == JsonToken.END_OBJECT) {
+                finished = true;
+            } else if (token == JsonToken.FIELD_NAME) {
+                section = parser.currentName();
+            } else {
+                value = new TokenBuffer(objectMapper, false);
+                value.copyCurrentEvent(parser);
+                if (token.isStructStart()) {
+                    depth = 2;
+                } else {
+                    completeSection();
+                }
+            }
+            return;
+        }
+
+        value.copyCurrentEvent(parser);
+        if (token.isStructStart()) {
+            depth++;
+        } else if (token.isStructEnd() && --depth == 1) {
+            completeSection();
+        }
+    }
+
+    private void completeSection() throws IOException {
+        JsonNode node;
+        try (JsonParser buffered = value.asParser(objectMapper)) {
+            node = objectMapper.readTree(buffered);
+        }
+        value = null;
+        profile.set(section, node);
+        onSection.accept(section, node);
+    }
+}
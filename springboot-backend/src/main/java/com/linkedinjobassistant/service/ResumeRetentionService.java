@@ -0,0 +1,208 @@
+package com.linkedinjobassistant.service;
+
+import com.linkedinjobassistant.cache.ResumeCache;
+import com.linkedinjobassistant.model.StoredProfile;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Deletes resumes older than the retention period, together with their
+ * stored profiles and every Redis key derived from them. Work is done in
+ * bounded batches walking the _id index, with a pause after each batch
+ * sized so the cleanup only uses a fixed share of wall-clock time.
+ * Deletion is permanent, so the job is off unless app.retention.enabled is set.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ResumeRetentionService {
+
+    private final MongoTemplate mongoTemplate;
+    private final ResumeCache resumeCache;
+    @Qualifier("redisBinaryTemplate")
+    private final RedisTemplate<String, byte[]> redisBinaryTemplate;
+    @Qualifier("redisTemplate")
+    private final RedisTemplate<String, String> redisTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.retention.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.retention.max-age:P90D}")
+    private Duration maxAge;
+
+    @Value("${app.retention.batch-size:500}")
+    private int batchSize;
+
+    // Share of wall-clock time spent deleting; the rest is spent pausing between batches
+    @Value("${app.retention.duty-cycle:0.25}")
+    private double dutyCycle;
+
+    @Value("${app.retention.time-budget:PT5M}")
+    private Duration timeBudget;
+
+    private static final String RESUMES_COLLECTION = "resumes";
+    private static final String LOCK_KEY = "retention:resumes:lock";
+
+    // Release the lock only if this node still holds it
+    private static final RedisScript<Long> RELEASE_LOCK = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('DEL', KEYS[1]) end "
+                    + "return 0",
+            Long.class);
+
+    /**
+     * Outcome of a retention run
+     */
+    public record RetentionResult(long resumesDeleted, long profilesDeleted, long bytesReclaimed,
+                                  int batches, Duration elapsed) {
+    }
+
+    @PostConstruct
+    void validate() {
+        if (!(dutyCycle > 0 && dutyCycle <= 1)) {
+            throw new IllegalStateException("app.retention.duty-cycle must be in (0, 1], was " + dutyCycle);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.retention.interval:PT1H}",
+            initialDelayString = "${app.retention.initial-delay:PT10M}")
+    public void scheduledCleanup() {
+        if (!enabled) {
+            return;
+        }
+
+        // One node at a time; the lock expires on its own if a node dies mid-run
+        String token = UUID.randomUUID().toString();
+        Boolean acquired = redisTemplate.opsForValue().setIfAbsent(LOCK_KEY, token, timeBudget.plusMinutes(1));
+        if (!Boolean.TRUE.equals(acquired)) {
+            log.debug("Resume retention already running on another node");
+            return;
+        }
+
+        try {
+            RetentionResult result = purgeOlderThan(Instant.now().minus(maxAge));
+            log.info("Resume retention deleted {} resumes and {} profiles, reclaimed {} bytes in {} batches ({} ms)",
+                    result.resumesDeleted(), result.profilesDeleted(), result.bytesReclaimed(),
+                    result.batches(), result.elapsed().toMillis());
+        } catch (Exception e) {
+            log.error("Resume retention run failed", e);
+        } finally {
+            // An overrunning run may have lost the lock to another node; leave that one alone
+            redisTemplate.execute(RELEASE_LOCK, List.of(LOCK_KEY), token);
+        }
+    }
+
+    /**
+     * Delete resumes created before the cutoff, stopping when none are left
+     * or the time budget is spent
+     */
+    public RetentionResult purgeOlderThan(Instant cutoff) {
+        Instant started = Instant.now();
+        Instant deadline = started.plus(timeBudget);
+        // ObjectIds lead with their creation time, so the _id index bounds the scan
+        ObjectId upper = new ObjectId(Date.from(cutoff));
+        ObjectId after = null;
+
+        long resumesDeleted = 0;
+        long profilesDeleted = 0;
+        long bytesReclaimed = 0;
+        int batches = 0;
+
+        while (Instant.now().isBefore(deadline)) {
+            long batchStarted = System.nanoTime();
+
+            Criteria range = after == null
+                    ? Criteria.where("_id").lt(upper)
+                    : Criteria.where("_id").gt(after).lt(upper);
+            Aggregation aggregation = Aggregation.newAggregation(
+                    Aggregation.match(range.and("createdAt").lt(cutoff)),
+                    Aggregation.sort(Sort.Direction.ASC, "_id"),
+                    Aggregation.limit(batchSize),
+                    Aggregation.project("userId", "contentHash")
+                            .and(context -> new Document("$bsonSize", "$$ROOT")).as("size"));
+            List<Document> batch = mongoTemplate.aggregate(aggregation, RESUMES_COLLECTION, Document.class)
+                    .getMappedResults();
+            if (batch.isEmpty()) {
+                break;
+            }
+
+            List<ObjectId> ids = new ArrayList<>(batch.size());
+            List<String> resumeIds = new ArrayList<>(batch.size());
+            List<String> keys = new ArrayList<>();
+            for (Document resume : batch) {
+                ObjectId id = resume.getObjectId("_id");
+                ids.add(id);
+                resumeIds.add(id.toHexString());
+                bytesReclaimed += resume.get("size", Number.class).longValue();
+                if (resume.getString("contentHash") != null) {
+                    keys.add(ResumeService.getHashKey(resume.getString("userId"), resume.getString("contentHash")));
+                }
+            }
+
+            // Profile cache keys include the text hash, so read it before the profiles go
+            Query profileQuery = Query.query(Criteria.where("resumeId").in(resumeIds));
+            profileQuery.fields().include("textHash");
+            for (StoredProfile profile : mongoTemplate.find(profileQuery, StoredProfile.class)) {
+                keys.add(ProfileService.getCacheKey(profile.getResumeId(), profile.getTextHash()));
+            }
+
+            resumesDeleted += mongoTemplate.remove(Query.query(Criteria.where("_id").in(ids)), RESUMES_COLLECTION)
+                    .getDeletedCount();
+            profilesDeleted += mongoTemplate.remove(profileQuery, StoredProfile.class).getDeletedCount();
+
+            resumeCache.evictAll(resumeIds);
+            if (!keys.isEmpty()) {
+                redisBinaryTemplate.delete(keys);
+            }
+
+            batches++;
+            after = ids.get(ids.size() - 1);
+            if (batch.size() < batchSize || !pause(System.nanoTime() - batchStarted)) {
+                break;
+            }
+        }
+
+        meterRegistry.counter("resume.retention.deleted", "collection", "resumes").increment(resumesDeleted);
+        meterRegistry.counter("resume.retention.deleted", "collection", "profiles").increment(profilesDeleted);
+        meterRegistry.counter("resume.retention.bytes").increment(bytesReclaimed);
+        return new RetentionResult(resumesDeleted, profilesDeleted, bytesReclaimed, batches,
+                Duration.between(started, Instant.now()));
+    }
+
+    /**
+     * Sleep long enough to hold the configured duty cycle; false if interrupted
+     */
+    private boolean pause(long batchNanos) {
+        long pauseMillis = (long) (batchNanos * (1 - dutyCycle) / dutyCycle / 1_000_000);
+        try {
+            Thread.sleep(pauseMillis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
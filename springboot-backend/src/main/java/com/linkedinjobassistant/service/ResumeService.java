@@ -1,19 +1,34 @@
 package com.linkedinjobassistant.service;
 
+import com.linkedinjobassistant.cache.RedisValueCodec;
+import com.linkedinjobassistant.cache.ResumeCache;
 import com.linkedinjobassistant.model.Resume;
+import com.linkedinjobassistant.model.ResumeSummary;
 import com.linkedinjobassistant.repository.ResumeRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.pdfbox.pdmodel.PDDocument;
-import org.apache.pdfbox.text.PDFTextStripper;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.ComparisonOperators;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.aggregation.StringOperators;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
 import java.util.Optional;
-import java.util.regex.Pattern;
 
 @Service
 @RequiredArgsConstructor
@@ -21,102 +36,228 @@ import java.util.regex.Pattern;
 public class ResumeService {
 
     private final ResumeRepository resumeRepository;
-    private final RedisTemplate<String, String> redisTemplate;
+    @Qualifier("redisBinaryTemplate")
+    private final RedisTemplate<String, byte[]> redisBinaryTemplate;
+    private final RedisValueCodec redisValueCodec;
+    private final PdfTextExtractor pdfTextExtractor;
+    private final MongoTemplate mongoTemplate;
+    private final ResumeCache resumeCache;
     
-    // Cache TTL for resume text
+    // Cache TTL for upload hash lookups
     private static final Duration CACHE_TTL = Duration.ofHours(24);
-    
-    // Pattern for cleaning text
-    private static final Pattern CLEAN_PATTERN = Pattern.compile("([a-z])([A-Z])|([A-Z])([A-Z][a-z])|\\.|,|\\|");
+
+    // Page size bounds for resume listings
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
 
     /**
-     * Process and store a new resume
+     * One page of resume summaries; nextCursor is null on the last page
      */
-    public Resume processResume(MultipartFile file, String userId) throws IOException {
-        // Extract text from PDF
-        String text = extractText(file);
-        
-        // Clean and normalize the text
-        String cleanedText = cleanText(text);
-        
-        // Create and save resume
-        Resume resume = new Resume(cleanedText, file.getOriginalFilename(), userId);
-        resume = resumeRepository.save(resume);
-        
-        // Cache the resume text
-        cacheResumeText(resume.getId(), cleanedText);
-        
-        return resume;
+    public record ResumePage(List<ResumeSummary> resumes, String nextCursor) {
+    }
+
+    /**
+     * A stored resume, and whether it was an earlier upload of the same file
+     */
+    public record ProcessedResume(Resume resume, boolean dedup) {
     }
 
     /**
-     * Get resume by ID with caching
+     * Process and store a new resume. Re-uploads of a file the user already
+     * uploaded return the existing resume without parsing or storing it again.
+     */
+    public ProcessedResume processResume(MultipartFile file, String userId) throws IOException {
+        PdfTextExtractor.SpooledPdf pdf = pdfTextExtractor.spool(file);
+        try {
+            Optional<Resume> existing = findByContentHash(userId, pdf.contentHash());
+            if (existing.isPresent()) {
+                log.info("Resume upload matched existing resume {}", existing.get().getId());
+                return new ProcessedResume(existing.get(), true);
+            }
+
+            // Extract text from PDF
+            String text = pdfTextExtractor.extract(pdf.path());
+            
+            // Clean and normalize the text
+            String cleanedText = cleanText(text);
+            
+            // Create and save resume
+            Resume resume = new Resume(cleanedText, file.getOriginalFilename(), userId);
+            resume.setContentHash(pdf.contentHash());
+            resume = resumeRepository.save(resume);
+            
+            // Cache the resume and the hash lookup
+            resumeCache.put(resume);
+            cacheHashLookup(userId, pdf.contentHash(), resume.getId());
+            
+            return new ProcessedResume(resume, false);
+        } finally {
+            Files.deleteIfExists(pdf.path());
+        }
+    }
+
+    /**
+     * Get resume by ID with caching. The cached record carries the owner,
+     * so a hit is authorized without a database read.
      */
     public Optional<Resume> getResume(String id, String userId) {
-        // Try to get from cache first
-        String cachedText = redisTemplate.opsForValue().get(getCacheKey(id));
-        
-        if (cachedText != null) {
-            return resumeRepository.findByIdAndUserId(id, userId)
-                .map(resume -> {
-                    resume.setText(cachedText);
-                    return resume;
-                });
+        Optional<Resume> cached = resumeCache.get(id);
+        if (cached.isPresent()) {
+            return cached.filter(resume -> userId.equals(resume.getUserId()));
         }
         
-        // If not in cache, get from database and cache it
+        // If not in cache, get from database and cache it unless it changed meanwhile
+        String fillToken = resumeCache.fillToken(id);
         return resumeRepository.findByIdAndUserId(id, userId)
             .map(resume -> {
-                cacheResumeText(id, resume.getText());
+                resumeCache.fill(resume, fillToken);
                 return resume;
             });
     }
 
+    /**
+     * List a user's resumes, newest first, as summaries. The projection runs
+     * in Mongo so resume text never leaves the database, and pages continue
+     * from an opaque (createdAt, id) cursor along the user/createdAt index.
+     */
+    public ResumePage listResumes(String userId, String cursor, Integer limit) {
+        int pageSize = limit == null || limit <= 0 ? DEFAULT_PAGE_SIZE : Math.min(limit, MAX_PAGE_SIZE);
+
+        Criteria criteria = Criteria.where("userId").is(userId);
+        if (cursor != null && !cursor.isEmpty()) {
+            PageCursor after = PageCursor.decode(cursor);
+            criteria = criteria.orOperator(
+                    Criteria.where("createdAt").lt(after.createdAt()),
+                    Criteria.where("createdAt").is(after.createdAt()).and("id").lt(after.id()));
+        }
+
+        // Fetch one extra row to know whether another page follows
+        TypedAggregation<Resume> aggregation = Aggregation.newAggregation(Resume.class,
+                Aggregation.match(criteria),
+                Aggregation.sort(Sort.by(Sort.Direction.DESC, "createdAt", "id")),
+                Aggregation.limit(pageSize + 1),
+                Aggregation.project("filename", "createdAt")
+                        .and(ComparisonOperators.Gt.valueOf(ConditionalOperators.ifNull("cachedAnalysis").then("")).greaterThanValue("")).as("hasAnalysis")
+                        .and(StringOperators.valueOf(ConditionalOperators.ifNull("text").then("")).lengthCP()).as("textLength"));
+
+        List<ResumeSummary> resumes = mongoTemplate.aggregate(aggregation, ResumeSummary.class).getMappedResults();
+        if (resumes.size() <= pageSize) {
+            return new ResumePage(resumes, null);
+        }
+
+        List<ResumeSummary> page = resumes.subList(0, pageSize);
+        ResumeSummary last = page.get(pageSize - 1);
+        return new ResumePage(page, new PageCursor(last.getCreatedAt(), new ObjectId(last.getId())).encode());
+    }
+
+    /**
+     * Position after the last resume of a page
+     */
+    private record PageCursor(Instant createdAt, ObjectId id) {
+
+        String encode() {
+            String value = createdAt.toEpochMilli() + ":" + id.toHexString();
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static PageCursor decode(String cursor) {
+            try {
+                String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = value.indexOf(':');
+                return new PageCursor(Instant.ofEpochMilli(Long.parseLong(value.substring(0, separator))),
+                        new ObjectId(value.substring(separator + 1)));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid cursor", e);
+            }
+        }
+    }
+
     /**
      * Extract text from PDF file
      */
-    private String extractText(MultipartFile file) throws IOException {
-        try (PDDocument document = PDDocument.load(file.getInputStream())) {
-            PDFTextStripper stripper = new PDFTextStripper();
-            return stripper.getText(document);
+    public String extractText(MultipartFile file) throws IOException {
+        return pdfTextExtractor.extract(file);
+    }
+
+    /**
+     * Extract and clean text from PDF file, reusing the stored text when the
+     * user has uploaded the same file before. Stored text is already cleaned,
+     * so both paths give the same text for the same file.
+     */
+    public String extractText(MultipartFile file, String userId) throws IOException {
+        return extractText(pdfTextExtractor.spool(file), userId);
+    }
+
+    /**
+     * Same as {@link #extractText(MultipartFile, String)} for an upload spooled
+     * earlier, for work that outlives the request; the spooled file is deleted
+     */
+    public String extractText(PdfTextExtractor.SpooledPdf pdf, String userId) throws IOException {
+        try {
+            Optional<Resume> existing = findByContentHash(userId, pdf.contentHash());
+            if (existing.isPresent()) {
+                return existing.get().getText();
+            }
+            return cleanText(pdfTextExtractor.extract(pdf.path()));
+        } finally {
+            Files.deleteIfExists(pdf.path());
+        }
+    }
+
+    /**
+     * Find a user's resume by upload hash, Redis first and then Mongo
+     */
+    private Optional<Resume> findByContentHash(String userId, String contentHash) {
+        String cachedId = readCachedValue(getHashKey(userId, contentHash));
+        if (cachedId != null) {
+            Optional<Resume> resume = getResume(cachedId, userId);
+            if (resume.isPresent()) {
+                return resume;
+            }
         }
+
+        Optional<Resume> resume = resumeRepository.findFirstByUserIdAndContentHash(userId, contentHash);
+        resume.ifPresent(found -> cacheHashLookup(userId, contentHash, found.getId()));
+        return resume;
     }
 
     /**
      * Clean and normalize text
      */
     private String cleanText(String text) {
-        if (text == null) return "";
-        
-        // Replace patterns with spaces
-        String cleaned = CLEAN_PATTERN.matcher(text)
-            .replaceAll(match -> {
-                String matched = match.group();
-                if (matched.length() == 2) {
-                    return matched.charAt(0) + " " + matched.charAt(1);
-                }
-                return matched + " ";
-            });
-        
-        // Normalize whitespace
-        cleaned = cleaned.replaceAll("\\s+", " ").trim();
-        
-        return cleaned;
+        return ResumeTextNormalizer.normalize(text);
     }
 
     /**
-     * Cache resume text in Redis
+     * Cache the upload hash to resume id lookup in Redis
      */
-    private void cacheResumeText(String resumeId, String text) {
-        String key = getCacheKey(resumeId);
-        redisTemplate.opsForValue().set(key, text, CACHE_TTL);
+    private void cacheHashLookup(String userId, String contentHash, String resumeId) {
+        try {
+            redisBinaryTemplate.opsForValue().set(getHashKey(userId, contentHash),
+                    redisValueCodec.encode(resumeId), CACHE_TTL);
+        } catch (IOException e) {
+            log.error("Error encoding resume hash lookup for cache", e);
+        }
     }
 
     /**
-     * Generate Redis cache key
+     * Read a cached string, treating undecodable entries as a miss
      */
-    private String getCacheKey(String resumeId) {
-        return String.format("resume:%s", resumeId);
+    private String readCachedValue(String key) {
+        byte[] cached = redisBinaryTemplate.opsForValue().get(key);
+        if (cached == null) {
+            return null;
+        }
+        try {
+            return redisValueCodec.decode(cached, String.class);
+        } catch (IOException e) {
+            log.error("Error decoding cached value {}", key, e);
+            return null;
+        }
+    }
+
+    static String getHashKey(String userId, String contentHash) {
+        return String.format("resume:hash:%s:%s", userId, contentHash);
     }
 
     /**
@@ -125,7 +266,10 @@ public class ResumeService {
     public void deleteResume(String id, String userId) {
         resumeRepository.findByIdAndUserId(id, userId).ifPresent(resume -> {
             resumeRepository.delete(resume);
-            redisTemplate.delete(getCacheKey(id));
+            resumeCache.evict(id);
+            if (resume.getContentHash() != null) {
+                redisBinaryTemplate.delete(getHashKey(userId, resume.getContentHash()));
+            }
         });
     }
 
@@ -135,7 +279,7 @@ public class ResumeService {
     public void updateAnalysis(String id, String userId, String analysis) {
         resumeRepository.findByIdAndUserId(id, userId).ifPresent(resume -> {
             resume.updateCachedAnalysis(analysis);
-            resumeRepository.save(resume);
+            resumeCache.put(resumeRepository.save(resume));
         });
     }
 }
@@ -0,0 +1,83 @@
+package com.linkedinjobassistant.service;
+
+/**
+ * Single-pass cleanup of extracted resume text. Splits lowerUpper camelCase
+ * joins, puts a space after '.', ',' and '|', collapses whitespace runs and
+ * trims, in one scan over the input.
+ *
+ * Output matches the original regex pipeline exactly, including its quirk
+ * that an "ABc" run is kept together and only followed by a space.
+ */
+public final class ResumeTextNormalizer {
+
+    private ResumeTextNormalizer() {
+    }
+
+    /**
+     * Normalize text; null becomes the empty string
+     */
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+
+        int length = text.length();
+        StringBuilder out = new StringBuilder(length + (length >> 4));
+        int i = 0;
+        while (i < length) {
+            char c = text.charAt(i);
+            if (isLower(c) && i + 1 < length && isUpper(text.charAt(i + 1))) {
+                // "aB" -> "a B"
+                out.append(c).append(' ').append(text.charAt(i + 1));
+                i += 2;
+            } else if (isUpper(c) && i + 2 < length && isUpper(text.charAt(i + 1)) && isLower(text.charAt(i + 2))) {
+                // "ABc" -> "ABc "
+                out.append(c).append(text.charAt(i + 1)).append(text.charAt(i + 2));
+                appendSpace(out);
+                i += 3;
+            } else if (c == '.' || c == ',' || c == '|') {
+                out.append(c);
+                appendSpace(out);
+                i++;
+            } else if (isWhitespace(c)) {
+                appendSpace(out);
+                i++;
+            } else {
+                out.append(c);
+                i++;
+            }
+        }
+
+        // Same bounds as String.trim()
+        int begin = 0;
+        int end = out.length();
+        while (begin < end && out.charAt(begin) <= ' ') {
+            begin++;
+        }
+        while (end > begin && out.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        return out.substring(begin, end);
+    }
+
+    // Collapses whitespace as it is written: at most one space in a row
+    private static void appendSpace(StringBuilder out) {
+        int last = out.length() - 1;
+        if (last < 0 || out.charAt(last) != ' ') {
+            out.append(' ');
+        }
+    }
+
+    private static boolean isLower(char c) {
+        return c >= 'a' && c <= 'z';
+    }
+
+    private static boolean isUpper(char c) {
+        return c >= 'A' && c <= 'Z';
+    }
+
+    // Matches the regex \s class: [ \t\n\x0B\f\r]
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+}
@@ -0,0 +1,152 @@
+package com.linkedinjobassistant.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.linkedinjobassistant.model.Job;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bytes stored and encode/decode cost per job for each format and compression,
+ * against the plain JSON strings written before the codec. Jobs are generated
+ * to match scraper output: a few KB of description built from boilerplate
+ * sentences, short skill lists and repeated companies and locations.
+ *
+ * Run from the IDE or with the test classpath: java ... RedisValueCodecBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RedisValueCodecBenchmark {
+
+    private static final int CORPUS_SIZE = 1_000;
+
+    private static final String[] SENTENCES = {
+            "We are looking for an experienced engineer to join our platform team.",
+            "You will design, build and operate services that handle millions of requests a day.",
+            "Strong experience with Java, Spring Boot and distributed systems is required.",
+            "Experience with AWS, Kubernetes and infrastructure as code is a plus.",
+            "You will work closely with product managers, designers and other engineers.",
+            "We offer competitive salary, equity, health insurance and a flexible remote policy.",
+            "Our stack includes Java 17, PostgreSQL, Redis, Kafka and React.",
+            "You care about code quality, testing and observability.",
+            "Bachelor's degree in Computer Science or equivalent practical experience.",
+            "We are an equal opportunity employer and value diversity at our company."
+    };
+    private static final String[] SKILLS = {"java", "spring", "aws", "kubernetes", "react", "sql", "redis",
+            "kafka", "python", "docker", "terraform", "typescript"};
+    private static final String[] LOCATIONS = {"San Francisco, CA", "New York, NY", "Remote", "Austin, TX",
+            "Seattle, WA", "London, United Kingdom"};
+
+    @Param({"JSON", "SMILE", "CBOR"})
+    public RedisValueCodec.Format format;
+
+    @Param({"NONE", "LZ4", "DEFLATE"})
+    public RedisValueCodec.Compression compression;
+
+    private ObjectMapper mapper;
+    private RedisValueCodec codec;
+    private List<Job> jobs;
+    private List<byte[]> encoded;
+    private List<byte[]> legacy;
+    private int next;
+
+    @Setup
+    public void setUp() throws IOException {
+        mapper = Jackson2ObjectMapperBuilder.json().build();
+        codec = new RedisValueCodec(mapper, format, compression, 512);
+        jobs = corpus();
+        encoded = new ArrayList<>(jobs.size());
+        legacy = new ArrayList<>(jobs.size());
+        long encodedBytes = 0;
+        long legacyBytes = 0;
+        for (Job job : jobs) {
+            byte[] value = codec.encode(job);
+            byte[] json = mapper.writeValueAsBytes(job);
+            encoded.add(value);
+            legacy.add(json);
+            encodedBytes += value.length;
+            legacyBytes += json.length;
+        }
+        System.out.printf("%n%s/%s: %d bytes per job, %.1f%% of plain JSON (%d bytes)%n", format, compression,
+                encodedBytes / jobs.size(), 100.0 * encodedBytes / legacyBytes, legacyBytes / jobs.size());
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        return codec.encode(jobs.get(nextIndex()));
+    }
+
+    @Benchmark
+    public Job decode() throws IOException {
+        return codec.decode(encoded.get(nextIndex()), Job.class);
+    }
+
+    @Benchmark
+    public Job decodeLegacyJson() throws IOException {
+        return codec.decode(legacy.get(nextIndex()), Job.class);
+    }
+
+    private int nextIndex() {
+        next = next + 1 == CORPUS_SIZE ? 0 : next + 1;
+        return next;
+    }
+
+    private static List<Job> corpus() {
+        Random random = new Random(2024);
+        Instant now = Instant.parse("2024-06-01T00:00:00Z");
+        List<Job> jobs = new ArrayList<>(CORPUS_SIZE);
+        for (int i = 0; i < CORPUS_SIZE; i++) {
+            StringBuilder description = new StringBuilder();
+            for (int sentences = 15 + random.nextInt(30); sentences > 0; sentences--) {
+                description.append(SENTENCES[random.nextInt(SENTENCES.length)]).append(' ');
+            }
+            List<String> skills = new ArrayList<>();
+            for (int count = 2 + random.nextInt(5); count > 0; count--) {
+                skills.add(SKILLS[random.nextInt(SKILLS.length)]);
+            }
+            jobs.add(Job.builder()
+                    .id("job-" + i)
+                    .title("Senior Software Engineer " + random.nextInt(100))
+                    .companyName("Company " + random.nextInt(200))
+                    .jobPostingUrl("https://www.linkedin.com/jobs/view/" + (3_900_000_000L + random.nextInt(1_000_000)))
+                    .description(description.toString().trim())
+                    .location(LOCATIONS[random.nextInt(LOCATIONS.length)])
+                    .skills(skills)
+                    .employmentType(random.nextBoolean() ? "Full-time" : "Contract")
+                    .experienceLevel(random.nextBoolean() ? "Mid-Senior level" : "Entry level")
+                    .listedAt(now.minusSeconds(random.nextInt(86_400 * 7)))
+                    .source("LinkedIn")
+                    .build());
+        }
+        return jobs;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RedisValueCodecBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,129 @@
+package com.linkedinjobassistant.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.linkedinjobassistant.model.Job;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+class RedisValueCodecTest {
+
+    // Same defaults as the mapper Spring Boot configures
+    private static final ObjectMapper MAPPER = Jackson2ObjectMapperBuilder.json().build();
+
+    private static final Job JOB = Job.builder()
+            .id("job-1")
+            .title("Senior Java Engineer")
+            .companyName("Acme")
+            .description("Build distributed services in Java and Spring. ".repeat(40))
+            .location("Remote")
+            .skills(List.of("java", "spring", "redis"))
+            .listedAt(Instant.parse("2024-05-01T10:15:30Z"))
+            .source("LinkedIn")
+            .build();
+
+    @Test
+    void roundTripsEveryFormatAndCompression() throws IOException {
+        for (RedisValueCodec.Format format : RedisValueCodec.Format.values()) {
+            for (RedisValueCodec.Compression compression : RedisValueCodec.Compression.values()) {
+                RedisValueCodec codec = new RedisValueCodec(MAPPER, format, compression, 0);
+                assertThat(codec.decode(codec.encode(JOB), Job.class))
+                        .as("%s/%s", format, compression)
+                        .isEqualTo(JOB);
+            }
+        }
+    }
+
+    @Test
+    void compressedValuesRoundTripAtEveryLength() throws IOException {
+        Random random = new Random(7);
+        StringBuilder text = new StringBuilder();
+        for (RedisValueCodec.Compression compression : RedisValueCodec.Compression.values()) {
+            RedisValueCodec codec = new RedisValueCodec(MAPPER, RedisValueCodec.Format.SMILE, compression, 0);
+            text.setLength(0);
+            for (int length = 0; length < 3_000; length++) {
+                String value = text.toString();
+                assertThat(codec.decode(codec.encode(value), String.class)).isEqualTo(value);
+                text.append(random.nextInt(4) == 0 ? (char) ('a' + random.nextInt(26)) : 'x');
+            }
+        }
+    }
+
+    @Test
+    void readsValuesWrittenBeforeTheCodec() throws IOException {
+        RedisValueCodec codec = codec();
+        byte[] json = MAPPER.writeValueAsBytes(JOB);
+
+        assertThat(codec.decode(json, Job.class)).isEqualTo(JOB);
+        assertThat(codec.decode("plain text".getBytes(StandardCharsets.UTF_8), String.class)).isEqualTo("plain text");
+    }
+
+    @Test
+    void rejectsUnknownFlags() throws IOException {
+        byte[] encoded = codec().encode(JOB);
+        for (int flags : new int[]{0x0f, 0x30, 0xf0, 0xff}) {
+            byte[] corrupt = encoded.clone();
+            corrupt[1] = (byte) flags;
+            assertThatThrownBy(() -> codec().decode(corrupt, Job.class))
+                    .isInstanceOf(IOException.class)
+                    .hasMessageContaining("flags");
+        }
+    }
+
+    @Test
+    void rejectsCorruptCompressedValues() throws IOException {
+        for (RedisValueCodec.Compression compression : List.of(RedisValueCodec.Compression.LZ4,
+                RedisValueCodec.Compression.DEFLATE)) {
+            RedisValueCodec codec = new RedisValueCodec(MAPPER, RedisValueCodec.Format.SMILE, compression, 0);
+            byte[] encoded = codec.encode(JOB);
+
+            byte[] wrongLength = encoded.clone();
+            ByteBuffer.wrap(wrongLength, 2, 4).putInt(ByteBuffer.wrap(encoded, 2, 4).getInt() + 100);
+            assertThatThrownBy(() -> codec.decode(wrongLength, Job.class)).isInstanceOf(IOException.class);
+
+            byte[] hugeLength = encoded.clone();
+            ByteBuffer.wrap(hugeLength, 2, 4).putInt(Integer.MAX_VALUE);
+            assertThatThrownBy(() -> codec.decode(hugeLength, Job.class)).isInstanceOf(IOException.class);
+
+            byte[] truncated = Arrays.copyOf(encoded, encoded.length / 2);
+            assertThatThrownBy(() -> codec.decode(truncated, Job.class)).isInstanceOf(IOException.class);
+
+            assertThatThrownBy(() -> codec.decode(Arrays.copyOf(encoded, 4), Job.class))
+                    .isInstanceOf(IOException.class);
+        }
+    }
+
+    @Test
+    void corruptBytesOnlyEverFailWithIOException() throws IOException {
+        Random random = new Random(42);
+        for (RedisValueCodec.Compression compression : RedisValueCodec.Compression.values()) {
+            RedisValueCodec codec = new RedisValueCodec(MAPPER, RedisValueCodec.Format.SMILE, compression, 0);
+            byte[] encoded = codec.encode(JOB);
+            for (int i = 0; i < 2_000; i++) {
+                byte[] corrupt = encoded.clone();
+                for (int flips = 1 + random.nextInt(4); flips > 0; flips--) {
+                    corrupt[random.nextInt(corrupt.length)] = (byte) random.nextInt(256);
+                }
+                Throwable thrown = catchThrowable(() -> codec.decode(corrupt, Job.class));
+                if (thrown != null) {
+                    assertThat(thrown).as("%s decode failure", compression).isInstanceOf(IOException.class);
+                }
+            }
+        }
+    }
+
+    private static RedisValueCodec codec() {
+        return new RedisValueCodec(MAPPER, RedisValueCodec.Format.SMILE, RedisValueCodec.Compression.LZ4, 0);
+    }
+}
@@ -0,0 +1,83 @@
+package com.linkedinjobassistant.cache;
+
+import com.linkedinjobassistant.model.Resume;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ResumeCacheTest {
+
+    private RedisTemplate<String, byte[]> redisBinaryTemplate;
+    private RedisTemplate<String, String> redisTemplate;
+    private ValueOperations<String, String> generations;
+    private ResumeCache resumeCache;
+    private Resume resume;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        redisBinaryTemplate = mock(RedisTemplate.class);
+        ValueOperations<String, byte[]> records = mock(ValueOperations.class);
+        when(redisBinaryTemplate.opsForValue()).thenReturn(records);
+        redisTemplate = mock(RedisTemplate.class);
+        generations = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(generations);
+        MeterRegistry meterRegistry = mock(MeterRegistry.class);
+        when(meterRegistry.counter(anyString(), any(String[].class))).thenReturn(mock(Counter.class));
+
+        resumeCache = new ResumeCache(redisBinaryTemplate, redisTemplate, mock(RedisMessageListenerContainer.class),
+                mock(RedisValueCodec.class), meterRegistry, 10, Duration.ofMinutes(1), Duration.ofHours(24));
+        resume = new Resume("Java engineer", "resume.pdf", "user-1");
+        resume.setId("resume-1");
+    }
+
+    @Test
+    void keepsAFillTheGenerationStillAllows() {
+        when(generations.get("resume:generation:resume-1")).thenReturn("3");
+        when(redisBinaryTemplate.execute(any(RedisScript.class), anyList(), eq("3".getBytes()), any(), any()))
+                .thenReturn(1L);
+
+        resumeCache.fill(resume, resumeCache.fillToken("resume-1"));
+
+        assertThat(resumeCache.get("resume-1")).contains(resume);
+        verify(redisTemplate, never()).convertAndSend(anyString(), any());
+    }
+
+    @Test
+    void dropsAFillThatRacedAnUpdateOrDelete() {
+        // The script finds the generation moved on and stores nothing
+        when(redisBinaryTemplate.execute(any(RedisScript.class), anyList(), any(), any(), any())).thenReturn(0L);
+
+        resumeCache.fill(resume, resumeCache.fillToken("resume-1"));
+
+        assertThat(resumeCache.get("resume-1")).isEmpty();
+        verify(redisTemplate, never()).convertAndSend(anyString(), any());
+    }
+
+    @Test
+    void broadcastsWritesAndEvictions() {
+        resumeCache.put(resume);
+        resumeCache.evict("resume-1");
+
+        verify(redisTemplate, times(2)).convertAndSend(eq("resume:evicted"), anyString());
+        assertThat(resumeCache.get("resume-1")).isEmpty();
+    }
+}
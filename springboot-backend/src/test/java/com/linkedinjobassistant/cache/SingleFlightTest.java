@@ -0,0 +1,61 @@
+package com.linkedinjobassistant.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+
+    @Test
+    void sharesTheFlightUntilItCompletes() {
+        AtomicInteger coalesced = new AtomicInteger();
+        SingleFlight<String, String> flights = new SingleFlight<>(coalesced::incrementAndGet);
+        CompletableFuture<String> call = new CompletableFuture<>();
+
+        CompletableFuture<String> first = flights.execute("key", () -> call);
+        CompletableFuture<String> second = flights.execute("key", () -> CompletableFuture.completedFuture("other"));
+        call.complete("value");
+
+        assertThat(second).isSameAs(first);
+        assertThat(first.join()).isEqualTo("value");
+        assertThat(coalesced.get()).isEqualTo(1);
+        assertThat(flights.execute("key", () -> CompletableFuture.completedFuture("next")).join()).isEqualTo("next");
+    }
+
+    @Test
+    void releasesTheKeyWhenStartingTheCallThrows() {
+        SingleFlight<String, String> flights = new SingleFlight<>(() -> { });
+
+        CompletableFuture<String> runtime = flights.execute("key", () -> {
+            throw new IllegalStateException("boom");
+        });
+        CompletableFuture<String> error = flights.execute("key", () -> {
+            throw new StackOverflowError();
+        });
+        CompletableFuture<String> nullFuture = flights.execute("key", () -> null);
+
+        assertThatThrownBy(runtime::join).isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(error::join).isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(StackOverflowError.class);
+        assertThatThrownBy(nullFuture::join).isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(NullPointerException.class);
+        assertThat(flights.execute("key", () -> CompletableFuture.completedFuture("value")).join()).isEqualTo("value");
+    }
+
+    @Test
+    void releasesTheKeyWhenTheCallFails() {
+        SingleFlight<String, String> flights = new SingleFlight<>(() -> { });
+
+        CompletableFuture<String> failed = flights.execute("key",
+                () -> CompletableFuture.failedFuture(new OutOfMemoryError("test")));
+
+        assertThatThrownBy(failed::join).hasCauseInstanceOf(OutOfMemoryError.class);
+        assertThat(flights.execute("key", () -> CompletableFuture.completedFuture("value")).join()).isEqualTo("value");
+    }
+}
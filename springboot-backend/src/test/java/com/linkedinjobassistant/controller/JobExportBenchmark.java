@@ -0,0 +1,169 @@
+package com.linkedinjobassistant.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.linkedinjobassistant.model.Job;
+import com.linkedinjobassistant.model.JobFilter;
+import com.linkedinjobassistant.service.JobFacetIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the NDJSON job export at window sizes of 100k jobs and up:
+ * the full window, a three-field projection, and a filter that keeps about a
+ * sixth of the jobs. Jobs go through JobController.writeNdjson into a sink
+ * that only counts bytes, so the numbers are serialization cost alone; the
+ * time range is a subList view of the window and costs nothing per job.
+ * Descriptions are drawn from a shared pool so the largest window fits a
+ * 512 MB heap, which also shows export memory does not grow with the window.
+ *
+ * Run from the IDE or with the test classpath: java ... JobExportBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx512m")
+public class JobExportBenchmark {
+
+    private static final int DESCRIPTIONS = 1_000;
+
+    private static final String[] SENTENCES = {
+            "We are looking for an experienced engineer to join our platform team.",
+            "You will design, build and operate services that handle millions of requests a day.",
+            "Strong experience with Java, Spring Boot and distributed systems is required.",
+            "Experience with AWS, Kubernetes and infrastructure as code is a plus.",
+            "You will work closely with product managers, designers and other engineers.",
+            "We offer competitive salary, equity, health insurance and a flexible remote policy.",
+            "Our stack includes Java 17, PostgreSQL, Redis, Kafka and React.",
+            "You care about code quality, testing and observability."
+    };
+    private static final String[] SKILLS = {"java", "spring", "aws", "kubernetes", "react", "sql", "redis",
+            "kafka", "python", "docker", "terraform", "typescript"};
+    private static final String[] LOCATIONS = {"San Francisco, CA", "New York, NY", "Remote", "Austin, TX",
+            "Seattle, WA", "London, United Kingdom"};
+
+    @Param({"100000", "250000"})
+    public int jobs;
+
+    private JobController controller;
+    private List<Job> window;
+    private JobProjection fullJob;
+    private JobProjection summary;
+    private JobFilter remoteOnly;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().build();
+        controller = new JobController(null, null, mapper, null);
+        window = window(jobs);
+        fullJob = JobProjection.of(null);
+        summary = JobProjection.of("title,companyName,location");
+        remoteOnly = JobFilter.builder().location(List.of("Remote")).build();
+
+        CountingSink sink = new CountingSink();
+        controller.writeNdjson(window.stream(), fullJob, sink);
+        System.out.printf("%n%d jobs: %.1f MB as NDJSON, %d bytes per job%n",
+                jobs, sink.bytes / 1e6, sink.bytes / jobs);
+    }
+
+    @Benchmark
+    public long fullExport() throws IOException {
+        return controller.writeNdjson(window.stream(), fullJob, new CountingSink());
+    }
+
+    @Benchmark
+    public long projectedExport() throws IOException {
+        return controller.writeNdjson(window.stream(), summary, new CountingSink());
+    }
+
+    @Benchmark
+    public long filteredExport() throws IOException {
+        return controller.writeNdjson(window.stream().filter(JobFacetIndex.matcher(remoteOnly)), fullJob,
+                new CountingSink());
+    }
+
+    /**
+     * A job window newest first, as the snapshot holds it
+     */
+    private static List<Job> window(int size) {
+        Random random = new Random(2024);
+        List<String> descriptions = new ArrayList<>(DESCRIPTIONS);
+        for (int i = 0; i < DESCRIPTIONS; i++) {
+            StringBuilder description = new StringBuilder();
+            for (int sentences = 8 + random.nextInt(10); sentences > 0; sentences--) {
+                description.append(SENTENCES[random.nextInt(SENTENCES.length)]).append(' ');
+            }
+            descriptions.add(description.toString().trim());
+        }
+
+        Instant now = Instant.parse("2024-06-01T00:00:00Z");
+        List<Job> jobs = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            List<String> skills = new ArrayList<>();
+            for (int count = 2 + random.nextInt(5); count > 0; count--) {
+                skills.add(SKILLS[random.nextInt(SKILLS.length)]);
+            }
+            jobs.add(Job.builder()
+                    .id("job-" + i)
+                    .title("Senior Software Engineer " + random.nextInt(100))
+                    .companyName("Company " + random.nextInt(200))
+                    .jobPostingUrl("https://www.linkedin.com/jobs/view/" + (3_900_000_000L + i))
+                    .description(descriptions.get(random.nextInt(DESCRIPTIONS)))
+                    .location(LOCATIONS[random.nextInt(LOCATIONS.length)])
+                    .skills(skills)
+                    .employmentType(random.nextBoolean() ? "Full-time" : "Contract")
+                    .experienceLevel(random.nextBoolean() ? "Mid-Senior level" : "Entry level")
+                    .listedAt(now.minusSeconds(random.nextInt(3_600 * 6)))
+                    .source("LinkedIn")
+                    .build());
+        }
+        jobs.sort(Comparator.comparing(Job::getListedAt).reversed());
+        return jobs;
+    }
+
+    /**
+     * Response body stand-in that discards what it is given
+     */
+    private static final class CountingSink extends OutputStream {
+        long bytes;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JobExportBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,172 @@
+package com.linkedinjobassistant.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.linkedinjobassistant.cache.AIResultCache;
+import com.linkedinjobassistant.model.Profile;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.theokanning.openai.completion.chat.ChatCompletionChoice;
+import com.theokanning.openai.completion.chat.ChatCompletionResult;
+import com.theokanning.openai.completion.chat.ChatMessage;
+import com.theokanning.openai.service.OpenAiService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Load test of AIService against a local stub LLM with injected latency.
+ * The stub holds every request until all of them have arrived, which can only
+ * happen if no caller thread waits on a response, then answers after a delay.
+ */
+class AIServiceLoadTest {
+
+    private static final int CONCURRENT_CALLS = 200;
+    private static final long LATENCY_MILLIS = 300;
+
+    private static final ObjectMapper MAPPER = Jackson2ObjectMapperBuilder.json().build();
+
+    private HttpServer stubLlm;
+    private ExecutorService stubThreads;
+    private ThreadPoolExecutor aiExecutor;
+    private OpenAiService openAiService;
+    private AIService aiService;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private final CountDownLatch allArrived = new CountDownLatch(CONCURRENT_CALLS);
+
+    @BeforeEach
+    void setUp() throws IOException {
+        stubThreads = Executors.newCachedThreadPool();
+        stubLlm = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), CONCURRENT_CALLS);
+        stubLlm.createContext("/v1beta/models/gemini-pro:generateContent", this::answerAnalysis);
+        stubLlm.setExecutor(stubThreads);
+        stubLlm.start();
+
+        aiExecutor = new ThreadPoolExecutor(4, 4, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(4),
+                new ThreadPoolExecutor.AbortPolicy());
+        openAiService = mock(OpenAiService.class);
+        HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+
+        aiService = new AIService(openAiService, MAPPER, httpClient, aiExecutor, mock(AIResultCache.class));
+        ReflectionTestUtils.setField(aiService, "googleApiKey", "test-key");
+        ReflectionTestUtils.setField(aiService, "geminiApiUrl", String.format(
+                "http://127.0.0.1:%d/v1beta/models/gemini-pro:generateContent", stubLlm.getAddress().getPort()));
+        ReflectionTestUtils.setField(aiService, "requestTimeout", Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(aiService, "maxConcurrentStreams", 32);
+        aiService.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        stubLlm.stop(0);
+        stubThreads.shutdownNow();
+        aiExecutor.shutdownNow();
+    }
+
+    @Test
+    void keepsEveryAnalysisInFlightWithoutHoldingTheCaller() {
+        long started = System.nanoTime();
+        List<CompletableFuture<Map<String, Object>>> calls = new ArrayList<>(CONCURRENT_CALLS);
+        for (int i = 0; i < CONCURRENT_CALLS; i++) {
+            calls.add(aiService.analyzeJobMatch("Java engineer", "Job description " + i));
+        }
+        // The stub has not answered anything yet, so no call can have finished
+        assertThat(calls).noneMatch(CompletableFuture::isDone);
+
+        CompletableFuture.allOf(calls.toArray(CompletableFuture[]::new)).join();
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+
+        assertThat(allArrived.getCount()).isZero();
+        assertThat(maxInFlight.get()).isEqualTo(CONCURRENT_CALLS);
+        assertThat(calls).allSatisfy(call -> assertThat(call.join()).containsEntry("JD Match", "85%"));
+        System.out.printf("%d analyses at %d ms stub latency: %d ms, %.0f calls/s, at most %d in flight%n",
+                CONCURRENT_CALLS, LATENCY_MILLIS, elapsedMillis, CONCURRENT_CALLS * 1000.0 / elapsedMillis,
+                maxInFlight.get());
+    }
+
+    @Test
+    void rejectsProfileGenerationOnceThePoolIsFull() {
+        CountDownLatch release = new CountDownLatch(1);
+        when(openAiService.createChatCompletion(any())).thenAnswer(invocation -> {
+            release.await(10, TimeUnit.SECONDS);
+            Thread.sleep(LATENCY_MILLIS);
+            return profileCompletion();
+        });
+
+        // Four running and four queued; the rest fail at once instead of waiting
+        List<CompletableFuture<Profile>> calls = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            calls.add(aiService.generateProfile("Resume " + i));
+        }
+        List<CompletableFuture<Profile>> accepted = calls.stream().filter(call -> !call.isDone()).toList();
+        List<CompletableFuture<Profile>> rejected = calls.stream().filter(CompletableFuture::isDone).toList();
+        release.countDown();
+
+        assertThat(accepted).hasSize(8);
+        assertThat(rejected).hasSize(12).allSatisfy(call -> assertThatThrownBy(call::join)
+                .hasCauseInstanceOf(RejectedExecutionException.class));
+        assertThat(accepted).allSatisfy(call -> assertThat(call.join().getName()).isEqualTo("Ada Lovelace"));
+    }
+
+    /**
+     * Hold the request until every call has arrived, then answer after the injected latency
+     */
+    private void answerAnalysis(HttpExchange exchange) throws IOException {
+        int concurrent = inFlight.incrementAndGet();
+        maxInFlight.accumulateAndGet(concurrent, Math::max);
+        try (exchange) {
+            exchange.getRequestBody().readAllBytes();
+            allArrived.countDown();
+            allArrived.await(10, TimeUnit.SECONDS);
+            Thread.sleep(LATENCY_MILLIS);
+
+            byte[] body = "{\"JD Match\": \"85%\", \"JD Keywords\": [\"Java\", \"Spring\"]}"
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    private static ChatCompletionResult profileCompletion() {
+        ChatCompletionChoice choice = new ChatCompletionChoice();
+        choice.setMessage(new ChatMessage("assistant", "{\"name\": \"Ada Lovelace\", \"headline\": \"Engineer\"}"));
+        ChatCompletionResult result = new ChatCompletionResult();
+        result.setChoices(List.of(choice));
+        return result;
+    }
+}
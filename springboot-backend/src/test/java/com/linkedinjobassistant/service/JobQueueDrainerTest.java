@@ -0,0 +1,328 @@
+package com.linkedinjobassistant.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.linkedinjobassistant.model.Job;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+import software.amazon.awssdk.services.sqs.SqsClient;
+import software.amazon.awssdk.services.sqs.model.BatchResultErrorEntry;
+import software.amazon.awssdk.services.sqs.model.DeleteMessageBatchRequest;
+import software.amazon.awssdk.services.sqs.model.DeleteMessageBatchRequestEntry;
+import software.amazon.awssdk.services.sqs.model.DeleteMessageBatchResponse;
+import software.amazon.awssdk.services.sqs.model.DeleteMessageBatchResultEntry;
+import software.amazon.awssdk.services.sqs.model.Message;
+import software.amazon.awssdk.services.sqs.model.ReceiveMessageRequest;
+import software.amazon.awssdk.services.sqs.model.ReceiveMessageResponse;
+import software.amazon.awssdk.services.sqs.model.SqsException;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JobQueueDrainerTest {
+
+    private static final String QUEUE_URL = "https://sqs.us-east-1.amazonaws.com/123456789012/jobs";
+    private static final ObjectMapper MAPPER = Jackson2ObjectMapperBuilder.json().build();
+    private static final Pattern JOB_NUMBER = Pattern.compile("job-(\\d+)");
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void drainsTheQueueWithConcurrentReceivers() throws Exception {
+        FakeSqsClient sqs = new FakeSqsClient();
+        for (int i = 0; i < 200; i++) {
+            sqs.send(message(Instant.now(), "job-" + i));
+        }
+        // Every receiver's first call waits until all of them are inside receiveMessage
+        sqs.firstReceives = new CountDownLatch(4);
+
+        JobQueueDrainer.DrainResult result = drainer(sqs).drain(QUEUE_URL, 4, Duration.ofSeconds(10));
+
+        assertThat(sqs.maxConcurrentReceives.get()).isEqualTo(4);
+        assertThat(result.received()).isEqualTo(200);
+        assertThat(result.deleted()).isEqualTo(200);
+        assertThat(result.jobs()).extracting(Job::getId)
+                .hasSize(200)
+                .doesNotHaveDuplicates();
+        assertThat(sqs.pending).isEmpty();
+        assertThat(sqs.inFlight).isEmpty();
+        assertThat(sqs.receiveRequests).allSatisfy(request -> {
+            assertThat(request.queueUrl()).isEqualTo(QUEUE_URL);
+            assertThat(request.maxNumberOfMessages()).isEqualTo(10);
+        });
+        assertThat(sqs.deleteRequests).allSatisfy(request -> assertThat(request.entries()).hasSizeLessThanOrEqualTo(10));
+    }
+
+    @Test
+    void stopsReceivingWhenTheTimeBudgetRunsOut() {
+        FakeSqsClient sqs = new FakeSqsClient();
+        // A queue that never empties, with every receive taking 50 ms of simulated time
+        SimulatedClock clock = new SimulatedClock(Instant.now());
+        sqs.refill = true;
+        sqs.clock = clock;
+        sqs.receiveMillis = 50;
+        Instant deadline = clock.instant().plusMillis(500);
+
+        JobQueueDrainer.DrainResult result = drainer(sqs, clock).drain(QUEUE_URL, 2, Duration.ofMillis(500));
+
+        // No receive starts after the deadline, so the run ends within one receive per receiver of it
+        assertThat(sqs.receiveStarts).allSatisfy(start -> assertThat(start).isBefore(deadline));
+        assertThat(result.elapsed()).isBetween(Duration.ofMillis(500), Duration.ofMillis(600));
+        assertThat(result.elapsed()).isEqualTo(Duration.ofMillis(50L * sqs.receiveRequests.size()));
+        assertThat(result.received()).isEqualTo(10 * sqs.receiveRequests.size());
+        assertThat(result.deleted()).isEqualTo(result.received());
+        // With under a second left, long polling must not outlast the budget
+        assertThat(sqs.receiveRequests).allSatisfy(request -> assertThat(request.waitTimeSeconds()).isZero());
+    }
+
+    @Test
+    void longPollsForAtMostTwoSeconds() {
+        FakeSqsClient sqs = new FakeSqsClient();
+        sqs.send(message(Instant.now(), "job-1"));
+
+        drainer(sqs).drain(QUEUE_URL, 1, Duration.ofMinutes(1));
+
+        assertThat(sqs.receiveRequests).isNotEmpty()
+                .allSatisfy(request -> assertThat(request.waitTimeSeconds()).isEqualTo(2));
+    }
+
+    @Test
+    void countsOnlySuccessfulDeletesAndLeavesFailedOnesOnTheQueue() {
+        FakeSqsClient sqs = new FakeSqsClient();
+        for (int i = 0; i < 25; i++) {
+            sqs.send(message(Instant.now(), "job-" + i));
+        }
+        // Fail every entry whose message carries an odd job number
+        sqs.failDelete = body -> {
+            Matcher matcher = JOB_NUMBER.matcher(body);
+            return matcher.find() && Integer.parseInt(matcher.group(1)) % 2 == 1;
+        };
+
+        JobQueueDrainer.DrainResult result = drainer(sqs).drain(QUEUE_URL, 1, Duration.ofSeconds(10));
+
+        assertThat(result.received()).isEqualTo(25);
+        assertThat(result.jobs()).hasSize(25);
+        assertThat(result.deleted()).isEqualTo(13);
+        assertThat(sqs.deleted).hasSize(13);
+        assertThat(sqs.inFlight).hasSize(12);
+    }
+
+    @Test
+    void keepsReceivingWhenADeleteBatchThrows() {
+        FakeSqsClient sqs = new FakeSqsClient();
+        for (int i = 0; i < 30; i++) {
+            sqs.send(message(Instant.now(), "job-" + i));
+        }
+        sqs.failNextDeleteBatches.set(1);
+
+        JobQueueDrainer.DrainResult result = drainer(sqs).drain(QUEUE_URL, 1, Duration.ofSeconds(10));
+
+        assertThat(result.received()).isEqualTo(30);
+        assertThat(result.jobs()).hasSize(30);
+        assertThat(result.deleted()).isEqualTo(20);
+        assertThat(sqs.inFlight).hasSize(10);
+    }
+
+    @Test
+    void acknowledgesStaleMessagesAndLeavesUnparseableOnes() {
+        FakeSqsClient sqs = new FakeSqsClient();
+        sqs.send(message(Instant.now(), "fresh"));
+        sqs.send(message(Instant.now().minus(Duration.ofHours(7)), "stale"));
+        sqs.send("{\"jobs\": []}");
+        sqs.send("not json");
+
+        JobQueueDrainer.DrainResult result = drainer(sqs).drain(QUEUE_URL, 1, Duration.ofSeconds(10));
+
+        assertThat(result.jobs()).extracting(Job::getId).containsExactly("fresh");
+        assertThat(result.received()).isEqualTo(4);
+        assertThat(result.deleted()).isEqualTo(2);
+        assertThat(sqs.inFlight.values()).containsExactlyInAnyOrder("{\"jobs\": []}", "not json");
+    }
+
+    private JobQueueDrainer drainer(SqsClient sqs) {
+        return drainer(sqs, Clock.systemUTC());
+    }
+
+    private JobQueueDrainer drainer(SqsClient sqs, Clock clock) {
+        JobQueueDrainer drainer = new JobQueueDrainer(sqs, MAPPER, executor);
+        ReflectionTestUtils.setField(drainer, "windowHours", 6);
+        ReflectionTestUtils.setField(drainer, "clock", clock);
+        return drainer;
+    }
+
+    private static String message(Instant timestamp, String jobId) {
+        try {
+            return MAPPER.writeValueAsString(Map.of(
+                    "timestamp", timestamp.toString(),
+                    "jobs", List.of(Map.of("id", jobId, "title", "Engineer", "companyName", "Acme"))));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Clock that only moves when told to, shared by the drainer and the fake queue
+     */
+    private static final class SimulatedClock extends Clock {
+
+        private final AtomicLong millis;
+
+        SimulatedClock(Instant start) {
+            millis = new AtomicLong(start.toEpochMilli());
+        }
+
+        void advance(long delta) {
+            millis.addAndGet(delta);
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis.get());
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /**
+     * In-memory queue with SQS receive and batch delete semantics: received
+     * messages stay in flight until deleted and are not redelivered.
+     */
+    private static final class FakeSqsClient implements SqsClient {
+
+        final Queue<String> pending = new ConcurrentLinkedQueue<>();
+        final Map<String, String> inFlight = new ConcurrentHashMap<>();
+        final Set<String> deleted = ConcurrentHashMap.newKeySet();
+        final Queue<ReceiveMessageRequest> receiveRequests = new ConcurrentLinkedQueue<>();
+        final Queue<DeleteMessageBatchRequest> deleteRequests = new ConcurrentLinkedQueue<>();
+        final Queue<Instant> receiveStarts = new ConcurrentLinkedQueue<>();
+        final AtomicInteger maxConcurrentReceives = new AtomicInteger();
+        final AtomicInteger failNextDeleteBatches = new AtomicInteger();
+
+        volatile CountDownLatch firstReceives;
+        volatile boolean refill;
+        volatile SimulatedClock clock;
+        volatile long receiveMillis;
+        volatile Predicate<String> failDelete = body -> false;
+
+        private final AtomicInteger concurrentReceives = new AtomicInteger();
+        private final AtomicInteger sequence = new AtomicInteger();
+        private final Set<Thread> receivedBefore = ConcurrentHashMap.newKeySet();
+
+        void send(String body) {
+            pending.add(body);
+        }
+
+        @Override
+        public ReceiveMessageResponse receiveMessage(ReceiveMessageRequest request) {
+            receiveRequests.add(request);
+            int concurrent = concurrentReceives.incrementAndGet();
+            maxConcurrentReceives.accumulateAndGet(concurrent, Math::max);
+            try {
+                CountDownLatch latch = firstReceives;
+                if (latch != null && receivedBefore.add(Thread.currentThread())) {
+                    latch.countDown();
+                    latch.await(5, TimeUnit.SECONDS);
+                }
+                SimulatedClock simulated = clock;
+                if (simulated != null) {
+                    receiveStarts.add(simulated.instant());
+                    simulated.advance(receiveMillis);
+                }
+
+                List<Message> messages = new ArrayList<>();
+                while (messages.size() < request.maxNumberOfMessages()) {
+                    String body = refill ? message(Instant.now(), "job-" + sequence.incrementAndGet()) : pending.poll();
+                    if (body == null) {
+                        break;
+                    }
+                    String handle = "handle-" + sequence.incrementAndGet();
+                    inFlight.put(handle, body);
+                    messages.add(Message.builder().messageId(handle).receiptHandle(handle).body(body).build());
+                }
+                return ReceiveMessageResponse.builder().messages(messages).build();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw SqsException.builder().message("interrupted").build();
+            } finally {
+                concurrentReceives.decrementAndGet();
+            }
+        }
+
+        @Override
+        public DeleteMessageBatchResponse deleteMessageBatch(DeleteMessageBatchRequest request) {
+            deleteRequests.add(request);
+            if (failNextDeleteBatches.getAndUpdate(n -> Math.max(n - 1, 0)) > 0) {
+                throw SqsException.builder().message("Service unavailable").statusCode(503).build();
+            }
+
+            List<DeleteMessageBatchResultEntry> successful = new ArrayList<>();
+            List<BatchResultErrorEntry> failed = new ArrayList<>();
+            for (DeleteMessageBatchRequestEntry entry : request.entries()) {
+                String body = inFlight.get(entry.receiptHandle());
+                if (body != null && !failDelete.test(body)) {
+                    inFlight.remove(entry.receiptHandle());
+                    deleted.add(entry.receiptHandle());
+                    successful.add(DeleteMessageBatchResultEntry.builder().id(entry.id()).build());
+                } else {
+                    failed.add(BatchResultErrorEntry.builder()
+                            .id(entry.id())
+                            .code("ReceiptHandleIsInvalid")
+                            .senderFault(true)
+                            .message("Delete failed")
+                            .build());
+                }
+            }
+            return DeleteMessageBatchResponse.builder().successful(successful).failed(failed).build();
+        }
+
+        @Override
+        public String serviceName() {
+            return SERVICE_NAME;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.linkedinjobassistant.service;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput and peak heap of resume uploads going through spooling and text
+ * extraction, with 1, 10 and 50 uploads in flight at once. "uploads" is the
+ * upload rate; peak heap per iteration is printed, summed over the heap
+ * pools' peaks. Documents are generated: a two-page resume, and a 60-page
+ * document that takes the parallel page-range path.
+ *
+ * Run from the IDE or with the test classpath: java ... PdfTextExtractorBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class PdfTextExtractorBenchmark {
+
+    private static final String[] WORDS = {"Java", "Spring", "Boot", "microservices", "AWS", "Kubernetes",
+            "designed", "built", "led", "team", "reduced", "latency", "by", "40%", "platform", "payments",
+            "React", "PostgreSQL", "Redis", "Kafka", "mentored", "engineers", "delivered", "migration"};
+
+    @Param({"1", "10", "50"})
+    public int concurrentUploads;
+
+    @Param({"2", "60"})
+    public int pages;
+
+    private PdfTextExtractor extractor;
+    private ExecutorService uploads;
+    private byte[] pdf;
+
+    /**
+     * Completed uploads, reported by JMH as a rate next to the primary result
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Uploads {
+        public long uploads;
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        extractor = new PdfTextExtractor(50, 200_000, 16, 4 * 1024 * 1024, 4);
+        uploads = Executors.newFixedThreadPool(concurrentUploads);
+        pdf = document(pages);
+        System.out.printf("%n%d-page document: %d bytes%n", pages, pdf.length);
+    }
+
+    @Setup(Level.Iteration)
+    public void resetPeakHeap() {
+        System.gc();
+        heapPools().forEach(MemoryPoolMXBean::resetPeakUsage);
+    }
+
+    @TearDown(Level.Iteration)
+    public void printPeakHeap() {
+        long peak = heapPools().stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+        System.out.printf("  peak heap %d MB%n", peak / (1024 * 1024));
+    }
+
+    @TearDown
+    public void tearDown() {
+        uploads.shutdownNow();
+        extractor.shutdown();
+    }
+
+    /**
+     * One round of concurrent uploads, each spooled to disk and extracted
+     */
+    @Benchmark
+    public int uploadConcurrently(Uploads counter) throws Exception {
+        List<Future<String>> inFlight = new ArrayList<>(concurrentUploads);
+        for (int i = 0; i < concurrentUploads; i++) {
+            MockMultipartFile file = new MockMultipartFile("file", "resume.pdf", "application/pdf", pdf);
+            inFlight.add(uploads.submit(() -> extractor.extract(file)));
+        }
+        int chars = 0;
+        for (Future<String> upload : inFlight) {
+            chars += upload.get().length();
+        }
+        counter.uploads += concurrentUploads;
+        return chars;
+    }
+
+    private static List<MemoryPoolMXBean> heapPools() {
+        return ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .toList();
+    }
+
+    /**
+     * A text-only PDF of the given length with resume-like lines
+     */
+    private static byte[] document(int pages) throws IOException {
+        Random random = new Random(pages);
+        PDType1Font font = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+        try (PDDocument document = new PDDocument()) {
+            for (int p = 0; p < pages; p++) {
+                PDPage page = new PDPage();
+                document.addPage(page);
+                try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                    content.beginText();
+                    content.setFont(font, 10);
+                    content.setLeading(14);
+                    content.newLineAtOffset(50, 740);
+                    for (int line = 0; line < 50; line++) {
+                        StringBuilder text = new StringBuilder("- ");
+                        for (int word = 0; word < 14; word++) {
+                            text.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+                        }
+                        content.showText(text.toString().trim());
+                        content.newLine();
+                    }
+                    content.endText();
+                }
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            document.save(out);
+            return out.toByteArray();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PdfTextExtractorBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,106 @@
+package com.linkedinjobassistant.service;
+
+import com.linkedinjobassistant.cache.ContentHash;
+import com.linkedinjobassistant.cache.RedisValueCodec;
+import com.linkedinjobassistant.model.Profile;
+import com.linkedinjobassistant.model.Resume;
+import com.linkedinjobassistant.model.StoredProfile;
+import com.linkedinjobassistant.repository.ProfileRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.UnaryOperator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProfileServiceTest {
+
+    private static final UnaryOperator<Profile> FINISHER = profile -> {
+        profile.setProfilePicture("picture");
+        return profile;
+    };
+
+    private ProfileRepository profileRepository;
+    private ValueOperations<String, byte[]> redisValues;
+    private AIRequestCoalescer aiRequestCoalescer;
+    private ProfileService profileService;
+    private Resume resume;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        profileRepository = mock(ProfileRepository.class);
+        RedisTemplate<String, byte[]> redisTemplate = mock(RedisTemplate.class);
+        redisValues = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(redisValues);
+        aiRequestCoalescer = mock(AIRequestCoalescer.class);
+        AIService aiService = mock(AIService.class);
+        when(aiService.fallbackProfile(any())).thenCallRealMethod();
+
+        profileService = new ProfileService(profileRepository, redisTemplate, mock(RedisValueCodec.class),
+                aiRequestCoalescer, aiService);
+        resume = new Resume("Java engineer", "resume.pdf", "user-1");
+        resume.setId("resume-1");
+        when(profileRepository.findByResumeIdAndUserId("resume-1", "user-1")).thenReturn(Optional.empty());
+    }
+
+    @Test
+    void doesNotStoreAFailedGeneration() {
+        when(aiRequestCoalescer.generateProfile(eq("Java engineer"), any()))
+                .thenReturn(CompletableFuture.failedFuture(new IOException("OpenAI unavailable")));
+
+        Profile first = profileService.getOrGenerate(resume, FINISHER).join();
+        Profile second = profileService.getOrGenerate(resume, FINISHER).join();
+
+        assertThat(first.getName()).isEqualTo("Profile Generation Failed");
+        assertThat(first.getProfilePicture()).isEqualTo("picture");
+        assertThat(second.getName()).isEqualTo("Profile Generation Failed");
+        // Each request tried again because nothing was stored
+        verify(aiRequestCoalescer, times(2)).generateProfile(eq("Java engineer"), any());
+        verify(profileRepository, never()).save(any());
+        verify(redisValues, never()).set(anyString(), any(), any(Duration.class));
+    }
+
+    @Test
+    void storesASuccessfulGeneration() {
+        Profile generated = Profile.builder().name("Ada Lovelace").build();
+        when(aiRequestCoalescer.generateProfile(eq("Java engineer"), any()))
+                .thenReturn(CompletableFuture.completedFuture(generated));
+
+        assertThat(profileService.getOrGenerate(resume, FINISHER).join()).isSameAs(generated);
+
+        verify(profileRepository).save(any(StoredProfile.class));
+        verify(redisValues).set(eq(ProfileService.getCacheKey("resume-1",
+                ContentHash.sha256Hex("Java engineer"))), any(), any(Duration.class));
+    }
+
+    @Test
+    void keepsRejectionsAsFailures() {
+        when(aiRequestCoalescer.generateProfile(eq("Java engineer"), any()))
+                .thenReturn(CompletableFuture.failedFuture(new RejectedExecutionException("AI executor saturated")));
+
+        assertThatThrownBy(() -> profileService.getOrGenerate(resume, FINISHER).join())
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(RejectedExecutionException.class);
+        assertThatThrownBy(() -> profileService.generate("Java engineer", FINISHER).join())
+                .hasCauseInstanceOf(RejectedExecutionException.class);
+        verify(profileRepository, never()).save(any());
+    }
+}
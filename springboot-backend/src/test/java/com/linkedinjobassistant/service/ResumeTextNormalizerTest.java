@@ -0,0 +1,109 @@
+package com.linkedinjobassistant.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResumeTextNormalizerTest {
+
+    // The regex pipeline ResumeTextNormalizer replaced, kept as the reference
+    private static final Pattern CLEAN_PATTERN = Pattern.compile("([a-z])([A-Z])|([A-Z])([A-Z][a-z])|\\.|,|\\|");
+
+    // Every character the normalizer or the regexes treat specially, plus near misses:
+    // all of \s, other control characters, non-ASCII letters and whitespace \s does not match
+    private static final char[] ALPHABET = {
+            'a', 'z', 'm', 'A', 'Z', 'M', '0', '9',
+            '.', ',', '|', '-', '$', '\\',
+            ' ', '\t', '\n', '\u000B', '\f', '\r',
+            '\u0000', '\u0001', '\u001F', '\u007F', '\u0085', ' ', ' ', '　',
+            'é', 'É', 'ß', 'Ω'
+    };
+
+    private static String regexClean(String text) {
+        if (text == null) return "";
+
+        String cleaned = CLEAN_PATTERN.matcher(text)
+            .replaceAll(match -> {
+                String matched = match.group();
+                if (matched.length() == 2) {
+                    return matched.charAt(0) + " " + matched.charAt(1);
+                }
+                return matched + " ";
+            });
+
+        return cleaned.replaceAll("\\s+", " ").trim();
+    }
+
+    @Test
+    void matchesRegexPipelineOnRandomText() {
+        Random random = new Random(20240613L);
+        for (int i = 0; i < 50_000; i++) {
+            StringBuilder text = new StringBuilder();
+            int length = random.nextInt(80);
+            for (int j = 0; j < length; j++) {
+                text.append(ALPHABET[random.nextInt(ALPHABET.length)]);
+            }
+            assertEquivalent(text.toString());
+        }
+    }
+
+    @Test
+    void matchesRegexPipelineOnEveryShortString() {
+        // Exhaustive over the characters that interact: case pairs, punctuation and whitespace kinds
+        char[] alphabet = {'a', 'B', 'C', '.', ' ', '\t', '\u000B', ' '};
+        int maxLength = 6;
+        char[] text = new char[maxLength];
+        for (int length = 0; length <= maxLength; length++) {
+            int combinations = (int) Math.pow(alphabet.length, length);
+            for (int n = 0; n < combinations; n++) {
+                int rest = n;
+                for (int i = 0; i < length; i++) {
+                    text[i] = alphabet[rest % alphabet.length];
+                    rest /= alphabet.length;
+                }
+                assertEquivalent(new String(text, 0, length));
+            }
+        }
+    }
+
+    @Test
+    void matchesRegexPipelineOnEveryCharacter() {
+        for (char c = 0; c < Character.MAX_VALUE; c++) {
+            assertEquivalent("x" + c + "Y" + c + c + "ABc" + c);
+        }
+    }
+
+    @Test
+    void matchesRegexPipelineOnResumeLikeText() {
+        assertEquivalent("John Doe|Senior SoftwareEngineer\n\nSkills:Java,Spring Boot,AWS.\r\n"
+                + "Built REST APIs for IBMCloud\tand\u000BGCPServices .  Led a team of 5.");
+        assertEquivalent("  PhD.,MSc|BSc  ");
+        assertEquivalent("");
+    }
+
+    @Test
+    void nullBecomesEmpty() {
+        assertThat(ResumeTextNormalizer.normalize(null)).isEmpty();
+    }
+
+    private static void assertEquivalent(String text) {
+        assertThat(ResumeTextNormalizer.normalize(text))
+                .as("normalize(%s)", escape(text))
+                .isEqualTo(regexClean(text));
+    }
+
+    private static String escape(String text) {
+        StringBuilder escaped = new StringBuilder("\"");
+        for (char c : text.toCharArray()) {
+            if (c < 0x20 || c > 0x7E) {
+                escaped.append(String.format("\\u%04X", (int) c));
+            } else {
+                escaped.append(c);
+            }
+        }
+        return escaped.append('"').toString();
+    }
+}